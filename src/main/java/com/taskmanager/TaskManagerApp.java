@@ -2,7 +2,7 @@ package com.taskmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 
 import javafx.application.Application;
@@ -15,7 +15,7 @@ import javafx.stage.Stage;
 @ComponentScan(basePackages = {"com.taskmanager"})  // ← ВАЖНО!
 public class TaskManagerApp extends Application {
 
-    private static ApplicationContext context;
+    private static ConfigurableApplicationContext context;
 
     public static void main(String[] args) {
         launch(args);
@@ -37,4 +37,15 @@ public class TaskManagerApp extends Application {
         stage.setScene(scene);
         stage.show();
     }
+
+    /**
+     * Закрытие окна или Platform.exit(): остановить Spring-контекст
+     * (@PreDestroy фоновых сервисов, пул соединений), после чего JVM завершится сама
+     */
+    @Override
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package com.taskmanager.cache;
+
+import com.taskmanager.dto.CacheStatsDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * BoundedCache - простой in-process кэш с ограничением по размеру (LRU) и по времени жизни записи
+ *
+ * Загрузка значения выполняется вне блокировки. Чтобы значение, загруженное до
+ * invalidate(), не попало в кэш после него, каждая инвалидация увеличивает поколение,
+ * а put() из загрузчика отбрасывается, если поколение сменилось.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private long generation;
+
+    public BoundedCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // accessOrder = true -> итерация от давно неиспользованных к свежим (LRU)
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Получить значение из кэша или загрузить его (null от загрузчика не кэшируется)
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            misses.incrementAndGet();
+            loadGeneration = generation;
+        }
+
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new CacheEntry<>(loaded, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Удалить одну запись
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Очистить кэш полностью
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Счётчики попаданий/промахов/вытеснений
+     */
+    public synchronized CacheStatsDTO getStats() {
+        return new CacheStatsDTO(name, entries.size(), maxSize, hits.get(), misses.get(), evictions.get());
+    }
+
+    private V lookup(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private CacheEntry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
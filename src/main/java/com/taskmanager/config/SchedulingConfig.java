@@ -0,0 +1,10 @@
+package com.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Пул потоков @Scheduled - spring.task.scheduling.pool.size в application.properties
+}
@@ -0,0 +1,280 @@
+package com.taskmanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * SchemaMigration - идемпотентные миграции, которые не умеет ddl-auto=update
+ *
+ * Hibernate добавляет новые колонки и обычные индексы сам, здесь - бэкфилл данных
+ * и специфичные для PostgreSQL индексы. Выполняется при старте до остальных слушателей.
+ */
+@Component
+public class SchemaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigration.class);
+
+    // Бэкфилл идёт короткими транзакциями, чтобы не держать блокировки на всей таблице
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        log.info("🛠️ Применение миграций схемы");
+        backfillTaskTitles();
+        createTaskTitlePrefixIndex();
+        syncIdSequence("task", "task_id_seq");
+        syncIdSequence("alerts", "alert_id_seq");
+        createTaskSearchVector();
+        createTaskDueDateIndex();
+        backfillRecurrenceRolledOver();
+        createSchedulerTables();
+        createAlertUnreadIndex();
+        createAlertRetentionObjects();
+        prepareAudioStorage();
+        createAudioBlobTable();
+        backfillAudioExpiry();
+        createAudioSearchIndexes();
+        createAudioUploadTables();
+    }
+
+    /**
+     * Заполнить task.title из первой строки description для старых строк
+     * (та же логика, что в Task.extractTitle)
+     */
+    private void backfillTaskTitles() {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE task SET title = COALESCE(NULLIF(" +
+                    "LEFT(BTRIM(split_part(description, chr(10), 1), ' ' || chr(9) || chr(13)), 255), ''), " +
+                    "'Без названия') " +
+                    "WHERE id IN (SELECT id FROM task WHERE title IS NULL LIMIT ?)",
+                    BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("✅ Бэкфилл task.title: обновлено {} строк", total);
+        }
+    }
+
+    /**
+     * Поднять последовательность выше уже выданных id таблицы
+     *
+     * Раньше id выдавала IDENTITY-колонка; Hibernate создаёт последовательность с нуля,
+     * и без этого шага пул идентификаторов пересёкся бы с существующими строками.
+     * Имена - константы из этого класса, не пользовательский ввод.
+     */
+    private void syncIdSequence(String table, String sequence) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY 50");
+        jdbcTemplate.queryForObject(
+                "SELECT setval('" + sequence + "', GREATEST(" +
+                "(SELECT COALESCE(MAX(id), 1) FROM " + table + "), " +
+                "(SELECT last_value FROM " + sequence + ")))",
+                Long.class);
+    }
+
+    /**
+     * Полнотекстовый индекс задач: генерируемая колонка tsvector поддерживается самим PostgreSQL
+     * при каждой записи (в том числе массовыми UPDATE), поиск идёт по GIN-индексу.
+     * Название весит больше описания; русская и английская конфигурации объединяются.
+     */
+    private void createTaskSearchVector() {
+        jdbcTemplate.execute(
+                "ALTER TABLE task ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('russian', coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector('russian', coalesce(description, '')), 'B') || " +
+                "setweight(to_tsvector('english', coalesce(description, '')), 'B')" +
+                ") STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_search_vector ON task USING gin (search_vector)");
+    }
+
+    /**
+     * Индекс для LIKE 'prefix%' независимо от collation базы
+     */
+    private void createTaskTitlePrefixIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_title_prefix ON task (title varchar_pattern_ops)");
+    }
+
+    /**
+     * Индекс по сроку: окно напоминаний и счётчик просроченных задач читают диапазон due_date
+     */
+    private void createTaskDueDateIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_due_date ON task (due_date)");
+    }
+
+    /**
+     * Признак ролловера для старых строк: завершённые задачи уже обработаны старым кодом,
+     * остальные получат копию при завершении
+     */
+    private void backfillRecurrenceRolledOver() {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE task SET recurrence_rolled_over = (status = 'COMPLETED') " +
+                    "WHERE id IN (SELECT id FROM task WHERE recurrence_rolled_over IS NULL LIMIT ?)",
+                    BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("✅ Бэкфилл task.recurrence_rolled_over: обновлено {} строк", total);
+        }
+
+        // Очередь RecurrenceRolloverJob - обычно пустая, поэтому частичный индекс крошечный
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_rollover_pending ON task (id) " +
+                "WHERE status = 'COMPLETED' AND recurrence_type <> 'NONE' AND recurrence_rolled_over = false");
+    }
+
+    /**
+     * Аренда партиций фоновой работы между узлами (PartitionLeaseManager)
+     * и индекс ленты изменений задач, по которой узлы подхватывают чужие правки
+     */
+    private void createSchedulerTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_node (" +
+                "node_id VARCHAR(100) PRIMARY KEY, " +
+                "heartbeat_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_lease (" +
+                "partition_no INTEGER PRIMARY KEY, " +
+                "owner VARCHAR(100), " +
+                "expires_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_updated_at ON task (updated_at)");
+    }
+
+    /**
+     * Частичный индекс непрочитанных оповещений: счётчик и keyset-страницы не читают прочитанный архив
+     */
+    private void createAlertUnreadIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_alert_unread ON alerts (alert_time DESC, id DESC) " +
+                "WHERE is_read = false");
+    }
+
+    /**
+     * Очистка прочитанных оповещений: индекс по времени прочитанных и таблица архива
+     */
+    private void createAlertRetentionObjects() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_alert_read_time ON alerts (alert_time) " +
+                "WHERE is_read = true");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS alerts_archive (" +
+                "id BIGINT PRIMARY KEY, " +
+                "task_id BIGINT NOT NULL, " +
+                "alert_time TIMESTAMP NOT NULL, " +
+                "type VARCHAR(255) NOT NULL, " +
+                "message TEXT, " +
+                "is_read BOOLEAN NOT NULL, " +
+                "archived_at TIMESTAMP NOT NULL DEFAULT now())");
+        jdbcTemplate.execute("ALTER TABLE alerts_archive ADD COLUMN IF NOT EXISTS occurrence_count INTEGER");
+    }
+
+    /**
+     * audio_data без сжатия в TOAST: substring/octet_length читают только нужные фрагменты
+     * (действует для новых записей); file_size для старых строк
+     */
+    private void prepareAudioStorage() {
+        jdbcTemplate.execute("ALTER TABLE audio_files ALTER COLUMN audio_data SET STORAGE EXTERNAL");
+
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE audio_files SET file_size = octet_length(audio_data) " +
+                    "WHERE id IN (SELECT id FROM audio_files WHERE file_size IS NULL LIMIT ?)",
+                    BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("✅ Бэкфилл audio_files.file_size: обновлено {} строк", total);
+        }
+    }
+
+    /**
+     * Счётчики ссылок файлового хранилища аудио (AudioBlobStore); audio_data
+     * становится необязательной - у таких записей содержимое на диске
+     */
+    private void createAudioBlobTable() {
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS audio_blobs (" +
+                "hash VARCHAR(64) PRIMARY KEY, " +
+                "size_bytes BIGINT NOT NULL, " +
+                "ref_count INTEGER NOT NULL)");
+        jdbcTemplate.execute("ALTER TABLE audio_files ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64)");
+        jdbcTemplate.execute("ALTER TABLE audio_files ALTER COLUMN audio_data DROP NOT NULL");
+    }
+
+    /**
+     * expires_at для записей, сохранённых до появления поля (срок по умолчанию из schema.sql),
+     * и индекс для AudioPurgeJob
+     */
+    private void backfillAudioExpiry() {
+        jdbcTemplate.execute("ALTER TABLE audio_files ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP");
+
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE audio_files SET expires_at = created_at + INTERVAL '30 days' " +
+                    "WHERE id IN (SELECT id FROM audio_files WHERE expires_at IS NULL LIMIT ?)",
+                    BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("✅ Бэкфилл audio_files.expires_at: обновлено {} строк", total);
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audio_expires_at ON audio_files (expires_at)");
+    }
+
+    /**
+     * Trigram-индекс для поиска по подстроке имени аудиофайла (LIKE '%...%')
+     * и индекс под keyset-пагинацию (created_at DESC, id DESC)
+     */
+    private void createAudioSearchIndexes() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audio_created_at_id ON audio_files (created_at DESC, id DESC)");
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audio_file_name_trgm ON audio_files " +
+                    "USING gin (file_name gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            // Расширение требует прав на CREATE в базе; без него поиск работает, но полным просмотром
+            log.warn("⚠️ pg_trgm недоступен, поиск по имени аудиофайла без индекса: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Состояние загрузок аудио частями (AudioUploadService); части для хранения в БД
+     */
+    private void createAudioUploadTables() {
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS audio_uploads (" +
+                "id VARCHAR(36) PRIMARY KEY, " +
+                "file_name VARCHAR(255) NOT NULL, " +
+                "duration_seconds INTEGER NOT NULL, " +
+                "storage VARCHAR(16) NOT NULL, " +
+                "received_bytes BIGINT NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL, " +
+                "updated_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audio_uploads_updated_at ON audio_uploads (updated_at)");
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS audio_upload_chunks (" +
+                "upload_id VARCHAR(36) NOT NULL REFERENCES audio_uploads (id) ON DELETE CASCADE, " +
+                "chunk_offset BIGINT NOT NULL, " +
+                "data BYTEA NOT NULL, " +
+                "PRIMARY KEY (upload_id, chunk_offset))");
+    }
+}
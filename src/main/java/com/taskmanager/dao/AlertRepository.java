@@ -2,8 +2,13 @@ package com.taskmanager.dao;
 
 import com.taskmanager.model.Alert;
 import com.taskmanager.model.AlertType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,4 +19,56 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     List<Alert> findByType(AlertType type);
     List<Alert> findByIsReadFalse();
     List<Alert> findByAlertTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    // ==================== НЕПРОЧИТАННЫЕ (частичный индекс idx_alert_unread, см. SchemaMigration) ====================
+
+    long countByIsReadFalse();
+
+    // Keyset-пагинация: новые сверху, порядок (alertTime DESC, id DESC)
+    @Query("SELECT a FROM Alert a WHERE a.isRead = false ORDER BY a.alertTime DESC, a.id DESC")
+    List<Alert> findUnreadFirstPage(Pageable limit);
+
+    @Query("SELECT a FROM Alert a WHERE a.isRead = false " +
+            "AND (a.alertTime < :alertTime OR (a.alertTime = :alertTime AND a.id < :id)) " +
+            "ORDER BY a.alertTime DESC, a.id DESC")
+    List<Alert> findUnreadPageAfter(@Param("alertTime") LocalDateTime alertTime,
+                                    @Param("id") Long id,
+                                    Pageable limit);
+
+    // ==================== МАССОВАЯ ОТМЕТКА ПРОЧИТАННЫМИ (один UPDATE) ====================
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.taskId = :taskId AND a.isRead = false")
+    int markAllReadByTaskId(@Param("taskId") Long taskId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.type = :type AND a.isRead = false")
+    int markAllReadByType(@Param("type") AlertType type);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.alertTime < :before AND a.isRead = false")
+    int markAllReadBefore(@Param("before") LocalDateTime before);
+
+    // ==================== ОЧИСТКА ПРОЧИТАННЫХ (пачками, индекс idx_alert_read_time) ====================
+    // SKIP LOCKED: пачки не ждут чужих блокировок, задание можно запускать на нескольких узлах.
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM alerts WHERE id IN (SELECT id FROM alerts " +
+            "WHERE is_read = true AND alert_time < :before ORDER BY alert_time LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteReadBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "WITH moved AS (DELETE FROM alerts WHERE id IN (SELECT id FROM alerts " +
+            "WHERE is_read = true AND alert_time < :before ORDER BY alert_time LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, task_id, alert_time, type, message, is_read, occurrence_count) " +
+            "INSERT INTO alerts_archive (id, task_id, alert_time, type, message, is_read, occurrence_count) " +
+            "SELECT id, task_id, alert_time, type, message, is_read, occurrence_count FROM moved",
+            nativeQuery = true)
+    int archiveReadBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
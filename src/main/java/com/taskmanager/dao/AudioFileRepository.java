@@ -1,14 +1,74 @@
 package com.taskmanager.dao;
 
+import com.taskmanager.dto.AudioFileInfoDTO;
 import com.taskmanager.model.AudioFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AudioFileRepository extends JpaRepository<AudioFile, Long> {
     List<AudioFile> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     List<AudioFile> findByFileNameContaining(String name);
+
+    // ==================== ПРОЕКЦИИ МЕТАДАННЫХ (без audio_data) ====================
+
+    String INFO_SELECT = "SELECT new com.taskmanager.dto.AudioFileInfoDTO(" +
+            "a.id, a.fileName, a.durationSeconds, a.createdAt, a.fileSize, a.contentHash) FROM AudioFile a ";
+
+    @Query(INFO_SELECT + "WHERE a.id = :id")
+    Optional<AudioFileInfoDTO> findInfoById(@Param("id") Long id);
+
+    @Query(INFO_SELECT + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AudioFileInfoDTO> findAllInfo();
+
+    @Query(INFO_SELECT + "WHERE a.createdAt BETWEEN :start AND :end ORDER BY a.createdAt DESC, a.id DESC")
+    List<AudioFileInfoDTO> findInfoByCreatedAtBetween(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    // pattern - уже экранированный '%...%' (см. AudioFileService.containsPattern);
+    // LIKE по file_name обслуживает trigram-индекс idx_audio_file_name_trgm
+    @Query(INFO_SELECT + "WHERE a.fileName LIKE :pattern ESCAPE '\\' ORDER BY a.createdAt DESC, a.id DESC")
+    List<AudioFileInfoDTO> findInfoByFileNameLike(@Param("pattern") String pattern, Pageable limit);
+
+    @Query(INFO_SELECT + "WHERE a.fileName LIKE :pattern ESCAPE '\\' " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AudioFileInfoDTO> findInfoByFileNameLikeAfter(@Param("pattern") String pattern,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable limit);
+
+    // ==================== ЧТЕНИЕ СОДЕРЖИМОГО ЧАСТЯМИ ====================
+    // audio_data хранится без сжатия (STORAGE EXTERNAL, см. SchemaMigration), поэтому substring
+    // и octet_length читают только нужные TOAST-фрагменты, а не весь файл.
+
+    // offset - с 1, как в SQL; у substring(bytea) оба аргумента integer (bytea не больше 1 ГБ)
+    @Query(value = "SELECT substring(audio_data FROM :offset FOR :length) FROM audio_files WHERE id = :id",
+            nativeQuery = true)
+    byte[] readAudioChunk(@Param("id") Long id, @Param("offset") int offset, @Param("length") int length);
+
+    @Query(value = "SELECT octet_length(audio_data) FROM audio_files WHERE id = :id", nativeQuery = true)
+    Long findAudioLength(@Param("id") Long id);
+
+    // ==================== ОЧИСТКА ИСТЁКШИХ ====================
+
+    // Пачка истёкших записей: [id, content_hash, размер]. Строки блокируются до конца
+    // транзакции, SKIP LOCKED позволяет нескольким узлам чистить параллельно
+    @Query(value = "SELECT id, content_hash, COALESCE(file_size, octet_length(audio_data)) FROM audio_files " +
+            "WHERE expires_at < :now ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Object[]> lockExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM AudioFile a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,175 @@
 package com.taskmanager.dao;
 
+import com.taskmanager.dto.RecurringTaskDTO;
+import com.taskmanager.dto.TaskSummaryDTO;
+import com.taskmanager.model.RecurrenceType;
 import com.taskmanager.model.Task;
 import com.taskmanager.model.TaskStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByStatus(TaskStatus status);
     List<Task> findByDueDateBetween(LocalDateTime start, LocalDateTime end);
     List<Task> findByPriorityGreaterThanOrderByDueDateAsc(Integer priority);
+
+    // ==================== МАССОВЫЕ ОПЕРАЦИИ (один SQL-оператор на пачку) ====================
+
+    // Для статусов кроме COMPLETED: сбрасывает признак ролловера, чтобы повторное завершение создало копию
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now, t.recurrenceRolledOver = false " +
+            "WHERE t.id IN :ids AND t.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") TaskStatus status,
+                           @Param("now") LocalDateTime now);
+
+    // Завершение вместе с признаком ролловера: следующие копии создаёт сам вызывающий (TaskService.completeTasks)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :completed, t.updatedAt = :now, t.recurrenceRolledOver = true " +
+            "WHERE t.id IN :ids AND t.status <> :completed")
+    int completeByIdIn(@Param("ids") Collection<Long> ids,
+                       @Param("completed") TaskStatus completed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :cancelled, t.updatedAt = :now " +
+            "WHERE t.dueDate < :before AND t.status IN :active")
+    int cancelOverdue(@Param("before") LocalDateTime before,
+                      @Param("active") Collection<TaskStatus> active,
+                      @Param("cancelled") TaskStatus cancelled,
+                      @Param("now") LocalDateTime now);
+
+    // Повторяющиеся задачи из набора, которые ещё не завершены (для них генерируются следующие копии).
+    // FOR UPDATE: параллельное завершение ждёт коммита и после него уже не видит эти строки;
+    // порядок по id - чтобы пересекающиеся наборы блокировались без взаимоблокировок
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.recurrenceType <> :none AND t.status <> :completed " +
+            "ORDER BY t.id")
+    List<Task> lockRecurringNotInStatus(@Param("ids") Collection<Long> ids,
+                                        @Param("none") RecurrenceType none,
+                                        @Param("completed") TaskStatus completed);
+
+    // ==================== РОЛЛОВЕР ПОВТОРЕНИЙ (несколько узлов) ====================
+
+    // Пачка завершённых повторяющихся задач без следующей копии. Строки остаются заблокированными
+    // до конца транзакции; SKIP LOCKED раздаёт разным узлам непересекающиеся пачки.
+    @Query(value = "SELECT id FROM task WHERE status = 'COMPLETED' AND recurrence_type <> 'NONE' " +
+            "AND recurrence_rolled_over = false ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimPendingRollovers(@Param("limit") int limit);
+
+    // 0 - копию уже создал другой узел или поток
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.recurrenceRolledOver = true WHERE t.id = :id AND t.recurrenceRolledOver = false")
+    int markRolledOver(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.recurrenceRolledOver = true WHERE t.id IN :ids")
+    int markRolledOverByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ==================== ПОЛНОТЕКСТОВЫЙ ПОИСК ====================
+    // search_vector - генерируемая tsvector-колонка (russian + english) с GIN-индексом, см. SchemaMigration.
+    // Строки: [id, title, status, priority, due_date, rank], порядок rank DESC, id ASC.
+
+    String SEARCH_SELECT = "SELECT r.id, r.title, r.status, r.priority, r.due_date, r.rank FROM (" +
+            "SELECT t.id, t.title, t.status, t.priority, t.due_date, ts_rank(t.search_vector, q.query) AS rank " +
+            "FROM task t, (SELECT websearch_to_tsquery('russian', :query) || websearch_to_tsquery('english', :query) AS query) q " +
+            "WHERE t.search_vector @@ q.query) r ";
+
+    @Query(value = SEARCH_SELECT + "ORDER BY r.rank DESC, r.id ASC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchFirstPage(@Param("query") String query, @Param("limit") int limit);
+
+    @Query(value = SEARCH_SELECT +
+            "WHERE r.rank < CAST(:rank AS real) OR (r.rank = CAST(:rank AS real) AND r.id > :id) " +
+            "ORDER BY r.rank DESC, r.id ASC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchPageAfter(@Param("query") String query,
+                                   @Param("rank") float rank,
+                                   @Param("id") Long id,
+                                   @Param("limit") int limit);
+
+    // ==================== СТАТИСТИКА ====================
+
+    // [status, count, overdueCount] - одним проходом с GROUP BY
+    @Query("SELECT t.status, COUNT(t), " +
+            "SUM(CASE WHEN t.dueDate < :now AND t.status <> :completed THEN 1 ELSE 0 END) " +
+            "FROM Task t GROUP BY t.status")
+    List<Object[]> countByStatusWithOverdue(@Param("now") LocalDateTime now,
+                                            @Param("completed") TaskStatus completed);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.dueDate < :now AND t.status <> :completed")
+    long countOverdue(@Param("now") LocalDateTime now, @Param("completed") TaskStatus completed);
+
+    // ==================== ПРОЕКЦИИ ДЛЯ СПИСКА ЗАДАЧ ====================
+    // Читают только колонку title, description в приложение не передаётся.
+
+    String SUMMARY_SELECT = "SELECT new com.taskmanager.dto.TaskSummaryDTO(" +
+            "t.id, t.title, t.status, t.priority, t.dueDate) FROM Task t ";
+
+    // Префиксный поиск по названию (индекс idx_task_title_prefix, varchar_pattern_ops)
+    @Query(SUMMARY_SELECT + "WHERE t.title LIKE :prefix ESCAPE '\\' ORDER BY t.title ASC, t.id ASC")
+    List<TaskSummaryDTO> findSummariesByTitleLike(@Param("prefix") String prefixPattern, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE t.dueDate >= :start AND t.dueDate < :end ORDER BY t.dueDate ASC, t.id ASC")
+    List<TaskSummaryDTO> findSummariesByDueDateBetween(@Param("start") LocalDateTime start,
+                                                       @Param("end") LocalDateTime end,
+                                                       Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id = :id")
+    Optional<TaskSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TaskSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Задачи своих партиций (id mod partitionCount) со сроком в [start, end) - окно напоминаний (индекс idx_task_due_date)
+    @Query(SUMMARY_SELECT + "WHERE t.status IN :statuses AND t.dueDate >= :start AND t.dueDate < :end " +
+            "AND MOD(t.id, :partitionCount) IN :partitions")
+    List<TaskSummaryDTO> findSummariesForReminders(@Param("statuses") Collection<TaskStatus> statuses,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end,
+                                                   @Param("partitionCount") long partitionCount,
+                                                   @Param("partitions") Collection<Long> partitions);
+
+    // Лента изменений своих партиций в (since, until] (индекс idx_task_updated_at)
+    @Query(SUMMARY_SELECT + "WHERE t.updatedAt > :since AND t.updatedAt <= :until " +
+            "AND MOD(t.id, :partitionCount) IN :partitions")
+    List<TaskSummaryDTO> findSummariesUpdatedBetween(@Param("since") LocalDateTime since,
+                                                     @Param("until") LocalDateTime until,
+                                                     @Param("partitionCount") long partitionCount,
+                                                     @Param("partitions") Collection<Long> partitions);
+
+    // Активные повторяющиеся задачи со сроком до конца окна - источники виртуальных повторений
+    @Query("SELECT new com.taskmanager.dto.RecurringTaskDTO(t.id, t.title, t.status, t.priority, t.dueDate, " +
+            "t.recurrenceType, t.recurrenceInterval) FROM Task t " +
+            "WHERE t.recurrenceType <> :none AND t.status IN :statuses AND t.dueDate < :end")
+    List<RecurringTaskDTO> findRecurringBefore(@Param("none") RecurrenceType none,
+                                               @Param("statuses") Collection<TaskStatus> statuses,
+                                               @Param("end") LocalDateTime end);
+
+    // ==================== KEYSET-ПАГИНАЦИЯ (priority DESC, id ASC) ====================
+
+    @Query(SUMMARY_SELECT + "WHERE t.status IN :statuses ORDER BY t.priority DESC, t.id ASC")
+    List<TaskSummaryDTO> findSummariesByStatusIn(@Param("statuses") Collection<TaskStatus> statuses, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE t.status IN :statuses " +
+            "AND (t.priority < :priority OR (t.priority = :priority AND t.id > :id)) " +
+            "ORDER BY t.priority DESC, t.id ASC")
+    List<TaskSummaryDTO> findSummariesByStatusInAfter(@Param("statuses") Collection<TaskStatus> statuses,
+                                                      @Param("priority") Integer priority,
+                                                      @Param("id") Long id,
+                                                      Pageable limit);
 }
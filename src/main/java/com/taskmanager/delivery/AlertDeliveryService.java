@@ -0,0 +1,265 @@
+package com.taskmanager.delivery;
+
+import com.taskmanager.model.Alert;
+import com.taskmanager.service.AlertEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AlertDeliveryService - отправка новых оповещений во внешний канал (Telegram)
+ *
+ * Оповещения из AlertEvent.CREATED попадают в ограниченную очередь. Если очередь полна,
+ * поток AlertService ждёт до offer-timeout-ms (обратное давление), затем оповещение
+ * отбрасывается и учитывается в счётчике. Один поток-отправитель собирает пачку,
+ * склеивает её в сообщения не длиннее лимита транспорта и рассылает по чатам с учётом
+ * лимитов Telegram (на чат и общий). Временные ошибки повторяются с экспоненциальной
+ * задержкой, retry_after сервера имеет приоритет.
+ */
+@Service
+public class AlertDeliveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertDeliveryService.class);
+
+    private static final long BACKOFF_BASE_MS = 1000;
+    private static final long BACKOFF_MAX_MS = 60_000;
+
+    @Autowired
+    private AlertTransport transport;
+
+    @Value("${taskmanager.telegram.enabled:false}")
+    private boolean enabled;
+
+    // Чаты получателей через запятую; пусто - доставка выключена
+    @Value("${telegram.bot.chat-ids:}")
+    private String chatIdsConfig;
+
+    @Value("${taskmanager.telegram.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${taskmanager.telegram.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    @Value("${taskmanager.telegram.batch-size:20}")
+    private int batchSize;
+
+    // Сколько ждать добора пачки после первого оповещения
+    @Value("${taskmanager.telegram.batch-linger-ms:500}")
+    private long batchLingerMs;
+
+    // Лимиты Telegram: около 1 сообщения в секунду в чат и 30 в секунду на бота
+    @Value("${taskmanager.telegram.per-chat-per-second:1}")
+    private double perChatPerSecond;
+
+    @Value("${taskmanager.telegram.global-per-second:30}")
+    private double globalPerSecond;
+
+    @Value("${taskmanager.telegram.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Map<String, TokenBucket> chatBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private List<String> chatIds = List.of();
+    private BlockingQueue<Alert> queue;
+    private TokenBucket globalBucket;
+    private Thread sender;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        chatIds = Arrays.stream(chatIdsConfig.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+        if (!enabled || chatIds.isEmpty()) {
+            log.info("📨 Доставка оповещений в Telegram выключена");
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        globalBucket = new TokenBucket(globalPerSecond, globalPerSecond);
+        running = true;
+        sender = new Thread(this::sendLoop, "alert-delivery");
+        sender.setDaemon(true);
+        sender.start();
+        log.info("📨 Доставка оповещений в Telegram: чатов {}", chatIds.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+            if (!queue.isEmpty()) {
+                log.warn("⚠️ Остановка доставки: не отправлено {} оповещений", queue.size());
+            }
+        }
+    }
+
+    /**
+     * Поставить новое оповещение в очередь отправки
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertEvent(AlertEvent event) {
+        if (running && event.getKind() == AlertEvent.Kind.CREATED) {
+            enqueue(event.getAlert());
+        }
+    }
+
+    /**
+     * Поставить оповещение в очередь; при полной очереди ждёт не дольше offer-timeout-ms
+     *
+     * @return false, если оповещение отброшено
+     */
+    public boolean enqueue(Alert alert) {
+        try {
+            if (queue.offer(alert, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = dropped.incrementAndGet();
+        log.warn("⚠️ Очередь доставки переполнена, оповещение {} отброшено (всего {})", alert.getId(), total);
+        return false;
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getQueueSize() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    // ==================== ОТПРАВКА ====================
+
+    private void sendLoop() {
+        List<Alert> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.clear();
+                batch.add(queue.take());
+                // Добрать пачку: сначала всё, что уже лежит, затем подождать остаток не дольше linger
+                queue.drainTo(batch, batchSize - batch.size());
+                long lingerUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLingerMs);
+                while (batch.size() < batchSize) {
+                    long remaining = lingerUntil - System.nanoTime();
+                    Alert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                boolean allSent = true;
+                for (String text : formatMessages(batch)) {
+                    for (String chatId : chatIds) {
+                        allSent &= deliver(chatId, text);
+                    }
+                }
+                if (allSent) {
+                    delivered.addAndGet(batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Ошибка доставки оповещений: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Отправить сообщение в чат с учётом лимитов и повторами
+     *
+     * @return false, если сообщение так и не доставлено
+     */
+    private boolean deliver(String chatId, String text) throws InterruptedException {
+        TokenBucket chatBucket = chatBuckets.computeIfAbsent(chatId, id -> new TokenBucket(perChatPerSecond, 1));
+        for (int attempt = 1; ; attempt++) {
+            chatBucket.acquire();
+            globalBucket.acquire();
+            try {
+                transport.send(chatId, text);
+                return true;
+            } catch (DeliveryException e) {
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    failed.incrementAndGet();
+                    log.error("❌ Сообщение в чат {} не доставлено после {} попыток: {}", chatId, attempt, e.getMessage());
+                    return false;
+                }
+                long delay = e.getRetryAfterMillis() > 0 ? e.getRetryAfterMillis() : backoffMillis(attempt);
+                log.warn("⚠️ Повтор отправки в чат {} через {} мс: {}", chatId, delay, e.getMessage());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Склеить пачку в сообщения не длиннее лимита транспорта (строка на оповещение)
+     */
+    List<String> formatMessages(List<Alert> batch) {
+        int limit = transport.maxMessageLength();
+        List<String> messages = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (Alert alert : batch) {
+            String line = formatLine(alert);
+            if (line.length() > limit) {
+                line = line.substring(0, limit - 1) + "…";
+            }
+            if (current.length() > 0 && current.length() + 1 + line.length() > limit) {
+                messages.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append('\n');
+            }
+            current.append(line);
+        }
+        if (current.length() > 0) {
+            messages.add(current.toString());
+        }
+        return messages;
+    }
+
+    private static String formatLine(Alert alert) {
+        String repeats = alert.getOccurrenceCount() > 1 ? " ×" + alert.getOccurrenceCount() : "";
+        return "🔔 [" + alert.getType() + "] " + alert.getMessage() + repeats;
+    }
+
+    /**
+     * Экспоненциальная задержка со случайным разбросом, чтобы повторы не шли строем
+     */
+    private static long backoffMillis(int attempt) {
+        long ceiling = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+}
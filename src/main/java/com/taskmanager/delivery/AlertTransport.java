@@ -0,0 +1,22 @@
+package com.taskmanager.delivery;
+
+/**
+ * AlertTransport - канал отправки текстовых сообщений (Telegram, заглушка для тестов и т.п.)
+ *
+ * Реализация отправляет одно сообщение синхронно; очередь, лимиты и повторы -
+ * забота AlertDeliveryService.
+ */
+public interface AlertTransport {
+
+    /**
+     * Максимальная длина одного сообщения
+     */
+    int maxMessageLength();
+
+    /**
+     * Отправить сообщение в чат
+     *
+     * @throws DeliveryException если отправка не удалась (isRetryable - можно повторить)
+     */
+    void send(String chatId, String text) throws DeliveryException;
+}
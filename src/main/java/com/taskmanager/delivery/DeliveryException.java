@@ -0,0 +1,31 @@
+package com.taskmanager.delivery;
+
+/**
+ * DeliveryException - ошибка отправки сообщения транспортом
+ */
+public class DeliveryException extends Exception {
+
+    private final boolean retryable;
+    // Сколько ждать перед повтором по требованию сервера (429 retry_after), 0 - на усмотрение отправителя
+    private final long retryAfterMillis;
+
+    public DeliveryException(String message, boolean retryable, long retryAfterMillis) {
+        super(message);
+        this.retryable = retryable;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public DeliveryException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryable = true;
+        this.retryAfterMillis = 0;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
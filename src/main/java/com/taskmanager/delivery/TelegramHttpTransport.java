@@ -0,0 +1,100 @@
+package com.taskmanager.delivery;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * TelegramHttpTransport - sendMessage Telegram Bot API через java.net.http
+ *
+ * Адрес API настраивается (telegram.bot.api-url), поэтому транспорт можно направить
+ * на локальную заглушку. 429 и 5xx считаются временными ошибками, 429 передаёт retry_after.
+ */
+@Component
+public class TelegramHttpTransport implements AlertTransport {
+
+    // Лимит Telegram на длину текста сообщения
+    private static final int TELEGRAM_MAX_MESSAGE_LENGTH = 4096;
+
+    private final Gson gson = new Gson();
+
+    @Value("${telegram.bot.token:}")
+    private String botToken;
+
+    @Value("${telegram.bot.api-url:https://api.telegram.org}")
+    private String apiUrl;
+
+    @Value("${telegram.bot.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Override
+    public int maxMessageLength() {
+        return TELEGRAM_MAX_MESSAGE_LENGTH;
+    }
+
+    @Override
+    public void send(String chatId, String text) throws DeliveryException {
+        JsonObject body = new JsonObject();
+        body.addProperty("chat_id", chatId);
+        body.addProperty("text", text);
+        body.addProperty("disable_web_page_preview", true);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + "/bot" + botToken + "/sendMessage"))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new DeliveryException("Telegram недоступен: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeliveryException("Отправка прервана", e);
+        }
+
+        int status = response.statusCode();
+        if (status == 200) {
+            return;
+        }
+        if (status == 429) {
+            throw new DeliveryException("Telegram: слишком много запросов", true, retryAfterMillis(response.body()));
+        }
+        // 5xx - временная ошибка сервера, 4xx (кроме 429) - повтор не поможет
+        throw new DeliveryException("Telegram ответил " + status + ": " + response.body(), status >= 500, 0);
+    }
+
+    /**
+     * parameters.retry_after из ответа 429 (секунды) в миллисекундах
+     */
+    private long retryAfterMillis(String responseBody) {
+        try {
+            JsonObject json = gson.fromJson(responseBody, JsonObject.class);
+            if (json != null && json.has("parameters")) {
+                JsonObject parameters = json.getAsJsonObject("parameters");
+                if (parameters.has("retry_after")) {
+                    return parameters.get("retry_after").getAsLong() * 1000;
+                }
+            }
+        } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+            // Тело не JSON - ждём по своей схеме
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskmanager.delivery;
+
+/**
+ * TokenBucket - ограничитель частоты: ratePerSecond токенов в секунду, не больше burst про запас
+ */
+class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, double burst) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000d;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Взять токен, если он есть
+     *
+     * @return 0 - токен взят, иначе сколько наносекунд ждать до следующего
+     */
+    synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerNano);
+    }
+
+    /**
+     * Дождаться и взять токен
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            Thread.sleep(Math.max(1, waitNanos / 1_000_000));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * AudioFileCursor - позиция в keyset-пагинации аудиофайлов
+ *
+ * Файлы упорядочены по (createdAt DESC, id DESC), поэтому следующая страница
+ * начинается строго после пары (createdAt, id) последнего загруженного файла.
+ */
+public class AudioFileCursor {
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public AudioFileCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "AudioFileCursor{" +
+                "createdAt=" + createdAt +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * AudioFileInfoDTO - метаданные аудиофайла без содержимого
+ *
+ * Заполняется JPQL constructor expression: списки аудио не читают колонку audio_data.
+ */
+public class AudioFileInfoDTO {
+    private final Long id;
+    private final String fileName;
+    private final Integer durationSeconds;
+    private final LocalDateTime createdAt;
+    private final Long fileSize;
+    private final String contentHash;
+
+    public AudioFileInfoDTO(Long id, String fileName, Integer durationSeconds, LocalDateTime createdAt,
+                            Long fileSize, String contentHash) {
+        this.id = id;
+        this.fileName = fileName;
+        this.durationSeconds = durationSeconds;
+        this.createdAt = createdAt;
+        this.fileSize = fileSize;
+        this.contentHash = contentHash;
+    }
+
+    public Long getId() { return id; }
+
+    public String getFileName() { return fileName; }
+
+    public Integer getDurationSeconds() { return durationSeconds; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getFileSize() { return fileSize; }
+
+    // null - содержимое хранится в БД
+    public String getContentHash() { return contentHash; }
+
+    @Override
+    public String toString() {
+        return "AudioFileInfoDTO{" +
+                "id=" + id +
+                ", fileName='" + fileName + '\'' +
+                ", durationSeconds=" + durationSeconds +
+                ", fileSize=" + fileSize +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * AudioFilePage - одна страница keyset-пагинации метаданных аудиофайлов
+ *
+ * nextCursor == null означает, что страниц больше нет.
+ */
+public class AudioFilePage {
+    private final List<AudioFileInfoDTO> items;
+    private final AudioFileCursor nextCursor;
+
+    public AudioFilePage(List<AudioFileInfoDTO> items, AudioFileCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AudioFileInfoDTO> getItems() { return items; }
+
+    public AudioFileCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,47 @@
+package com.taskmanager.dto;
+
+public class CacheStatsDTO {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStatsDTO(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() { return name; }
+
+    public int getSize() { return size; }
+
+    public int getMaxSize() { return maxSize; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    public long getEvictions() { return evictions; }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsDTO{" +
+                "name='" + name + '\'' +
+                ", size=" + size + "/" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.RecurrenceType;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * RecurringTaskDTO - минимальные данные повторяющейся задачи для развёртки повторений (без description)
+ */
+public class RecurringTaskDTO {
+    private final Long id;
+    private final String title;
+    private final TaskStatus status;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+    private final RecurrenceType recurrenceType;
+    private final Integer recurrenceInterval;
+
+    public RecurringTaskDTO(Long id, String title, TaskStatus status, Integer priority, LocalDateTime dueDate,
+                            RecurrenceType recurrenceType, Integer recurrenceInterval) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.recurrenceType = recurrenceType;
+        this.recurrenceInterval = recurrenceInterval != null ? recurrenceInterval : 0;
+    }
+
+    public static RecurringTaskDTO from(Task task) {
+        return new RecurringTaskDTO(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                task.getDueDate(), task.getRecurrenceType(), task.getRecurrenceInterval());
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public TaskStatus getStatus() { return status; }
+
+    public Integer getPriority() { return priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+
+    public RecurrenceType getRecurrenceType() { return recurrenceType; }
+
+    public Integer getRecurrenceInterval() { return recurrenceInterval; }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.RecurrenceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * TaskCreateRequest - параметры новой задачи для массового создания и импорта
+ */
+public class TaskCreateRequest {
+    private String title;
+    private String description;
+    private Integer priority;
+    private LocalDateTime dueDate;
+    private RecurrenceType recurrenceType;
+    private Integer recurrenceInterval;
+
+    public TaskCreateRequest() {}
+
+    public TaskCreateRequest(String title, String description, Integer priority, LocalDateTime dueDate, RecurrenceType recurrenceType) {
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.recurrenceType = recurrenceType;
+    }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+    public RecurrenceType getRecurrenceType() { return recurrenceType; }
+    public void setRecurrenceType(RecurrenceType recurrenceType) { this.recurrenceType = recurrenceType; }
+
+    public Integer getRecurrenceInterval() { return recurrenceInterval; }
+    public void setRecurrenceInterval(Integer recurrenceInterval) { this.recurrenceInterval = recurrenceInterval; }
+
+    @Override
+    public String toString() {
+        return "TaskCreateRequest{" +
+                "title='" + title + '\'' +
+                ", priority=" + priority +
+                ", dueDate=" + dueDate +
+                ", recurrenceType=" + recurrenceType +
+                '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmanager.dto;
+
+/**
+ * TaskCursor - позиция в keyset-пагинации задач
+ *
+ * Задачи упорядочены по (priority DESC, id ASC), поэтому следующая страница
+ * начинается строго после пары (priority, id) последней загруженной задачи.
+ */
+public class TaskCursor {
+    private final Integer priority;
+    private final Long id;
+
+    public TaskCursor(Integer priority, Long id) {
+        this.priority = priority;
+        this.id = id;
+    }
+
+    public Integer getPriority() { return priority; }
+
+    public Long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "TaskCursor{" +
+                "priority=" + priority +
+                ", id=" + id +
+                '}';
+    }
+}
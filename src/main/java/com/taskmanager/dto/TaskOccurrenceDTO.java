@@ -0,0 +1,65 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * TaskOccurrenceDTO - появление задачи в календарном диапазоне
+ *
+ * virtual = true - будущее повторение, вычисленное на лету и не сохранённое в БД;
+ * taskId у него указывает на исходную повторяющуюся задачу.
+ */
+public class TaskOccurrenceDTO {
+    private final Long taskId;
+    private final String title;
+    private final TaskStatus status;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+    private final boolean virtual;
+    private final long occurrenceIndex;
+
+    public TaskOccurrenceDTO(Long taskId, String title, TaskStatus status, Integer priority,
+                             LocalDateTime dueDate, boolean virtual, long occurrenceIndex) {
+        this.taskId = taskId;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.virtual = virtual;
+        this.occurrenceIndex = occurrenceIndex;
+    }
+
+    /**
+     * Реальная (сохранённая) задача
+     */
+    public static TaskOccurrenceDTO real(TaskSummaryDTO task) {
+        return new TaskOccurrenceDTO(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                task.getDueDate(), false, 0);
+    }
+
+    public Long getTaskId() { return taskId; }
+
+    public String getTitle() { return title; }
+
+    public TaskStatus getStatus() { return status; }
+
+    public Integer getPriority() { return priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+
+    public boolean isVirtual() { return virtual; }
+
+    public long getOccurrenceIndex() { return occurrenceIndex; }
+
+    @Override
+    public String toString() {
+        return "TaskOccurrenceDTO{" +
+                "taskId=" + taskId +
+                ", title='" + title + '\'' +
+                ", dueDate=" + dueDate +
+                ", virtual=" + virtual +
+                ", occurrenceIndex=" + occurrenceIndex +
+                '}';
+    }
+}
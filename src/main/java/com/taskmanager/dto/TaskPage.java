@@ -0,0 +1,24 @@
+package com.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * TaskPage - одна страница keyset-пагинации
+ *
+ * nextCursor == null означает, что страниц больше нет.
+ */
+public class TaskPage<T> {
+    private final List<T> items;
+    private final TaskCursor nextCursor;
+
+    public TaskPage(List<T> items, TaskCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public TaskCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.dto;
+
+/**
+ * TaskSearchHitDTO - результат полнотекстового поиска: строка списка + релевантность
+ *
+ * Пара (rank, id) последнего результата служит курсором следующей страницы.
+ */
+public class TaskSearchHitDTO {
+    private final TaskSummaryDTO task;
+    private final float rank;
+
+    public TaskSearchHitDTO(TaskSummaryDTO task, float rank) {
+        this.task = task;
+        this.rank = rank;
+    }
+
+    public TaskSummaryDTO getTask() { return task; }
+
+    public float getRank() { return rank; }
+
+    @Override
+    public String toString() {
+        return "TaskSearchHitDTO{" +
+                "task=" + task +
+                ", rank=" + rank +
+                '}';
+    }
+}
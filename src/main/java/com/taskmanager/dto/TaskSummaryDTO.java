@@ -0,0 +1,67 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.DueDateCategory;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * TaskSummaryDTO - облегчённая строка списка задач (без description)
+ *
+ * Заполняется JPQL constructor expression, поэтому таблица не тянет в память
+ * TEXT-колонку описания. Полная сущность Task загружается только при открытии задачи.
+ */
+public class TaskSummaryDTO {
+    private final Long id;
+    private final String title;
+    private final TaskStatus status;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+
+    // Вычисляется при загрузке/обновлении списка, чтобы отрисовка строки ничего не считала
+    private DueDateCategory dueCategory;
+
+    public TaskSummaryDTO(Long id, String title, TaskStatus status, Integer priority, LocalDateTime dueDate) {
+        this.id = id;
+        this.title = title != null && !title.isEmpty() ? title : "Без названия";
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+    }
+
+    /**
+     * Построить строку списка из уже загруженной сущности
+     */
+    public static TaskSummaryDTO from(Task task) {
+        return new TaskSummaryDTO(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getDueDate());
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public TaskStatus getStatus() { return status; }
+
+    public Integer getPriority() { return priority; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+
+    /**
+     * Категория срока по последнему снимку DueDateClassifier (null - ещё не классифицирована)
+     */
+    public DueDateCategory getDueCategory() { return dueCategory; }
+
+    public void setDueCategory(DueDateCategory dueCategory) { this.dueCategory = dueCategory; }
+
+    @Override
+    public String toString() {
+        return "TaskSummaryDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", status=" + status +
+                ", priority=" + priority +
+                ", dueDate=" + dueDate +
+                '}';
+    }
+}
@@ -7,8 +7,11 @@ import java.time.LocalDateTime;
 @Table(name = "alerts")
 public class Alert {
 
+    // Пул идентификаторов из последовательности, чтобы вставки склеенных оповещений шли батчами.
+    // allocationSize должен совпадать с INCREMENT BY последовательности alert_id_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alert_id_generator")
+    @SequenceGenerator(name = "alert_id_generator", sequenceName = "alert_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,6 +30,11 @@ public class Alert {
     @Column(nullable = false)
     private Boolean isRead = false;
 
+    // Сколько одинаковых оповещений склеено в это (см. AlertCoalescer).
+    // nullable - чтобы ddl-auto=update мог добавить колонку к существующим строкам
+    @Column
+    private Integer occurrenceCount = 1;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -75,4 +83,12 @@ public class Alert {
     public void setIsRead(Boolean isRead) {
         this.isRead = isRead;
     }
+
+    public int getOccurrenceCount() {
+        return occurrenceCount != null ? occurrenceCount : 1;
+    }
+
+    public void setOccurrenceCount(Integer occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
 }
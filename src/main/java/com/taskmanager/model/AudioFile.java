@@ -11,9 +11,22 @@ public class AudioFile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    // Содержимое грузится только при обращении (нужен hibernate-enhance-maven-plugin);
+    // для чтения большими файлами используйте AudioFileService.openAudioChannel.
+    // null, если содержимое лежит в файловом хранилище (см. contentHash)
+    @Basic(fetch = FetchType.LAZY)
+    @Column
     private byte[] audioData;
 
+    // SHA-256 содержимого в AudioBlobStore; null - содержимое в audioData
+    @Column(length = 64)
+    private String contentHash;
+
+    // Размер audioData в байтах - чтобы списки не трогали саму колонку.
+    // nullable - чтобы ddl-auto=update мог добавить колонку (бэкфилл в SchemaMigration)
+    @Column
+    private Long fileSize;
+
     @Column(nullable = false)
     private Integer durationSeconds;
 
@@ -23,12 +36,26 @@ public class AudioFile {
     @Column(nullable = false)
     private String fileName;
 
+    // После этого момента запись удаляет AudioPurgeJob; nullable - для ddl-auto=update
+    // (старые строки заполняет SchemaMigration)
+    @Column
+    private LocalDateTime expiresAt;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public byte[] getAudioData() { return audioData; }
-    public void setAudioData(byte[] audioData) { this.audioData = audioData; }
+    public void setAudioData(byte[] audioData) {
+        this.audioData = audioData;
+        this.fileSize = audioData != null ? (long) audioData.length : null;
+    }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
 
     public Integer getDurationSeconds() { return durationSeconds; }
     public void setDurationSeconds(Integer durationSeconds) { this.durationSeconds = durationSeconds; }
@@ -38,4 +65,7 @@ public class AudioFile {
 
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
 }
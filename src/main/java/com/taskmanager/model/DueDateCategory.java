@@ -0,0 +1,11 @@
+package com.taskmanager.model;
+
+/**
+ * DueDateCategory - категория срока задачи для подсветки в списке
+ */
+public enum DueDateCategory {
+    OVERDUE,                // Просрочена
+    TODAY_OR_TOMORROW,      // Срок сегодня или завтра
+    THIS_WEEK,              // Срок в ближайшие 7 дней
+    NONE                    // Без срока, срок позже или задача выполнена
+}
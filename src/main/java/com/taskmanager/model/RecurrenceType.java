@@ -1,5 +1,8 @@
 package com.taskmanager.model;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 /**
  * RecurrenceType - тип повторения задачи
  */
@@ -10,6 +13,9 @@ public enum RecurrenceType {
     MONTHLY("Ежемесячно"),
     CUSTOM("Произвольный период");
 
+    // Период CUSTOM по умолчанию, если интервал не задан
+    private static final int DEFAULT_CUSTOM_INTERVAL_DAYS = 7;
+
     private final String displayName;
 
     RecurrenceType(String displayName) {
@@ -20,8 +26,55 @@ public enum RecurrenceType {
         return displayName;
     }
 
+    /**
+     * Дата повторения номер steps, отсчитанная от base
+     *
+     * Считается от base, а не шаг за шагом, поэтому MONTHLY не "сползает"
+     * (31 января -> 28 февраля -> 31 марта, а не 28 марта).
+     *
+     * @param customIntervalDays интервал в днях для CUSTOM
+     */
+    public LocalDateTime shift(LocalDateTime base, long steps, int customIntervalDays) {
+        return switch (this) {
+            case DAILY -> base.plusDays(steps);
+            case WEEKLY -> base.plusWeeks(steps);
+            case MONTHLY -> base.plusMonths(steps);
+            case CUSTOM -> base.plusDays(steps * customStepDays(customIntervalDays));
+            default -> base.plusDays(steps);
+        };
+    }
+
+    /**
+     * Наименьший номер шага n >= 0, для которого shift(base, n) не раньше from (O(1), без перебора)
+     */
+    public long firstStepNotBefore(LocalDateTime base, LocalDateTime from, int customIntervalDays) {
+        if (!from.isAfter(base)) {
+            return 0;
+        }
+
+        long estimate = switch (this) {
+            case WEEKLY -> ChronoUnit.WEEKS.between(base, from);
+            case MONTHLY -> ChronoUnit.MONTHS.between(base, from);
+            case CUSTOM -> ChronoUnit.DAYS.between(base, from) / customStepDays(customIntervalDays);
+            default -> ChronoUnit.DAYS.between(base, from);
+        };
+
+        // Оценка может ошибаться на шаг из-за разной длины месяцев
+        while (estimate > 0 && !shift(base, estimate - 1, customIntervalDays).isBefore(from)) {
+            estimate--;
+        }
+        while (shift(base, estimate, customIntervalDays).isBefore(from)) {
+            estimate++;
+        }
+        return estimate;
+    }
+
+    private static int customStepDays(int customIntervalDays) {
+        return customIntervalDays > 0 ? customIntervalDays : DEFAULT_CUSTOM_INTERVAL_DAYS;
+    }
+
     @Override
     public String toString() {
         return displayName;
     }
-}
\ No newline at end of file
+}
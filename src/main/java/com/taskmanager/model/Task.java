@@ -7,16 +7,31 @@ import java.time.LocalDateTime;
  * Task - сущность задачи в системе
  */
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        // Keyset-пагинация списка задач: ORDER BY priority DESC, id ASC
+        @Index(name = "idx_task_priority_id", columnList = "priority DESC, id"),
+        // Сортировка по названию (префиксный поиск - см. SchemaMigration, varchar_pattern_ops)
+        @Index(name = "idx_task_title", columnList = "title")
+})
 public class Task {
 
+    public static final int TITLE_MAX_LENGTH = 255;
+
+    // Пул идентификаторов из последовательности (IDENTITY отключает JDBC-батчинг вставок в Hibernate).
+    // allocationSize должен совпадать с INCREMENT BY последовательности task_id_seq.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_generator")
+    @SequenceGenerator(name = "task_id_generator", sequenceName = "task_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description = "";
 
+    // Первая строка description; хранится отдельно, синхронизируется в setDescription().
+    // nullable - чтобы ddl-auto=update мог добавить колонку к существующим строкам (бэкфилл в SchemaMigration)
+    @Column(length = TITLE_MAX_LENGTH)
+    private String title;
+
     @Column(nullable = true)
     private LocalDateTime dueDate;
 
@@ -42,6 +57,19 @@ public class Task {
     @Column(nullable = false)
     private Integer recurrenceInterval = 0; // Дни для CUSTOM
 
+    // Следующая копия уже создана (или создаётся) - защищает от двойного ролловера на нескольких узлах.
+    // nullable - чтобы ddl-auto=update мог добавить колонку (бэкфилл в SchemaMigration)
+    @Column
+    private Boolean recurrenceRolledOver = false;
+
+    // ==================== СОСТОЯНИЕ В БД (для инкрементальной статистики) ====================
+
+    @Transient
+    private TaskStatus persistedStatus;
+
+    @Transient
+    private LocalDateTime persistedDueDate;
+
     // ==================== Конструкторы ====================
 
     /**
@@ -49,6 +77,7 @@ public class Task {
      */
     public Task() {
         this.description = "";
+        this.title = extractTitle(this.description);
         this.priority = 5;
         this.status = TaskStatus.NEW;
         this.recurrenceType = RecurrenceType.NONE;
@@ -62,6 +91,7 @@ public class Task {
      */
     public Task(String description, Integer priority, LocalDateTime dueDate, RecurrenceType recurrenceType) {
         this.description = description != null ? description : "";
+        this.title = extractTitle(this.description);
         this.priority = priority != null ? priority : 5;
         this.dueDate = dueDate;
         this.recurrenceType = recurrenceType != null ? recurrenceType : RecurrenceType.NONE;
@@ -71,22 +101,69 @@ public class Task {
         this.status = TaskStatus.NEW;
     }
 
+    /**
+     * Отсоединённая копия со всеми полями (включая состояние в БД) - для передачи
+     * изменяемого экземпляра наружу, не отдавая общий объект из кэша
+     */
+    public Task copy() {
+        Task copy = new Task();
+        copy.id = id;
+        copy.description = description;
+        copy.title = title;
+        copy.dueDate = dueDate;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.status = status;
+        copy.priority = priority;
+        copy.recurrenceType = recurrenceType;
+        copy.recurrenceInterval = recurrenceInterval;
+        copy.recurrenceRolledOver = recurrenceRolledOver;
+        copy.persistedStatus = persistedStatus;
+        copy.persistedDueDate = persistedDueDate;
+        return copy;
+    }
+
+    // ==================== ЖИЗНЕННЫЙ ЦИКЛ ====================
+
+    /**
+     * Запомнить значения, которые сейчас лежат в БД
+     */
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedState() {
+        this.persistedStatus = status;
+        this.persistedDueDate = dueDate;
+    }
+
     // ==================== БИЗНЕС-ЛОГИКА ====================
 
     /**
-     * Извлечь название из первой строки описания
+     * Название задачи (первая строка описания, хранится в колонке title)
      */
     public String getTitle() {
+        if (title == null) {
+            // Строка ещё не прошла бэкфилл
+            title = extractTitle(description);
+        }
+        return title;
+    }
+
+    /**
+     * Извлечь название из первой строки описания
+     */
+    public static String extractTitle(String description) {
         if (description == null || description.isEmpty()) {
             return "Без названия";
         }
 
         int newlineIndex = description.indexOf('\n');
-        if (newlineIndex == -1) {
-            return description;
+        String firstLine = newlineIndex == -1 ? description.trim() : description.substring(0, newlineIndex).trim();
+        if (firstLine.isEmpty()) {
+            return "Без названия";
         }
 
-        return description.substring(0, newlineIndex).trim();
+        return firstLine.length() > TITLE_MAX_LENGTH ? firstLine.substring(0, TITLE_MAX_LENGTH) : firstLine;
     }
 
     /**
@@ -156,6 +233,7 @@ public class Task {
 
     public void setDescription(String description) {
         this.description = description != null ? description : "";
+        this.title = extractTitle(this.description);
     }
 
     public LocalDateTime getDueDate() {
@@ -189,6 +267,10 @@ public class Task {
     public void setStatus(TaskStatus status) {
         this.status = status;
         this.updatedAt = LocalDateTime.now();
+        if (status != TaskStatus.COMPLETED) {
+            // Повторное завершение снова должно породить следующую копию
+            this.recurrenceRolledOver = false;
+        }
     }
 
     public Integer getPriority() {
@@ -215,6 +297,28 @@ public class Task {
         this.recurrenceInterval = recurrenceInterval != null ? recurrenceInterval : 0;
     }
 
+    public boolean isRecurrenceRolledOver() {
+        return Boolean.TRUE.equals(recurrenceRolledOver);
+    }
+
+    public void setRecurrenceRolledOver(boolean recurrenceRolledOver) {
+        this.recurrenceRolledOver = recurrenceRolledOver;
+    }
+
+    /**
+     * Статус на момент последней загрузки/сохранения (null для ещё не сохранённой задачи)
+     */
+    public TaskStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    /**
+     * Срок на момент последней загрузки/сохранения
+     */
+    public LocalDateTime getPersistedDueDate() {
+        return persistedDueDate;
+    }
+
     // ==================== toString ====================
 
     @Override
@@ -0,0 +1,57 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.service.AlertService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * AlertRetentionJob - удаляет (или архивирует) прочитанные оповещения старше retention-days
+ *
+ * Работает пачками через SKIP LOCKED, поэтому безопасен на нескольких узлах
+ * и не держит долгих блокировок на таблице alerts.
+ */
+@Component
+public class AlertRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertRetentionJob.class);
+
+    @Autowired
+    private AlertService alertService;
+
+    @Value("${taskmanager.alerts.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskmanager.alerts.retention.days:30}")
+    private long retentionDays;
+
+    @Value("${taskmanager.alerts.retention.batch-size:1000}")
+    private int batchSize;
+
+    // true - переносить в alerts_archive, false - удалять
+    @Value("${taskmanager.alerts.retention.archive:false}")
+    private boolean archive;
+
+    @Scheduled(fixedDelayString = "${taskmanager.alerts.retention.interval-ms:3600000}",
+            initialDelayString = "${taskmanager.alerts.retention.initial-delay-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            long purged = alertService.purgeReadAlerts(LocalDateTime.now().minusDays(retentionDays), batchSize, archive);
+            log.info("🧹 Очистка оповещений старше {} дн.: {} {} строк за {} мс",
+                    retentionDays, archive ? "перенесено в архив" : "удалено", purged,
+                    System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            log.error("❌ Ошибка очистки оповещений: {}", e.getMessage());
+        }
+    }
+}
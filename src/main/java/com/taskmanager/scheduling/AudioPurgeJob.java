@@ -0,0 +1,94 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.service.AudioFileService;
+import com.taskmanager.service.AudioUploadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * AudioPurgeJob - удаляет аудиозаписи с истёкшим expires_at
+ *
+ * Пачками через SKIP LOCKED (безопасно на нескольких узлах); содержимое в файловом
+ * хранилище удаляется вместе с последней ссылкой. Заменяет SQL-функцию
+ * delete_expired_audio_files(), которая не знает о файловом хранилище.
+ * Заодно удаляет брошенные загрузки частями (AudioUploadService).
+ */
+@Component
+public class AudioPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioPurgeJob.class);
+
+    @Autowired
+    private AudioFileService audioFileService;
+
+    @Autowired
+    private AudioUploadService audioUploadService;
+
+    // Загрузка частями без активности дольше этого срока считается брошенной
+    @Value("${taskmanager.audio.upload.stale-hours:24}")
+    private long uploadStaleHours;
+
+    @Value("${taskmanager.audio.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskmanager.audio.purge.batch-size:200}")
+    private int batchSize;
+
+    // Ограничение на один запуск, чтобы большой хвост не занимал поток планировщика надолго
+    @Value("${taskmanager.audio.purge.max-batches:50}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${taskmanager.audio.purge.interval-ms:3600000}",
+            initialDelayString = "${taskmanager.audio.purge.initial-delay-ms:120000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long databaseBytesBefore = audioFileService.getReclaimedDatabaseBytes();
+        long diskBytesBefore = audioFileService.getReclaimedDiskBytes();
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        try {
+            int purged;
+            int batches = 0;
+            do {
+                purged = audioFileService.purgeExpiredBatch(now, batchSize);
+                total += purged;
+            } while (purged == batchSize && ++batches < maxBatches);
+        } catch (RuntimeException e) {
+            log.error("❌ Ошибка очистки аудиозаписей: {}", e.getMessage());
+        }
+
+        long staleUploads = 0;
+        try {
+            LocalDateTime staleBefore = now.minusHours(uploadStaleHours);
+            int purged;
+            int batches = 0;
+            do {
+                purged = audioUploadService.purgeStaleUploads(staleBefore, batchSize);
+                staleUploads += purged;
+            } while (purged == batchSize && ++batches < maxBatches);
+        } catch (RuntimeException e) {
+            log.error("❌ Ошибка очистки брошенных загрузок: {}", e.getMessage());
+        }
+        if (staleUploads > 0) {
+            log.info("🧹 Удалено брошенных загрузок аудио: {}", staleUploads);
+        }
+
+        if (total > 0) {
+            log.info("🧹 Очистка аудио: удалено {} записей, освобождено {} байт в БД и {} байт на диске за {} мс",
+                    total,
+                    audioFileService.getReclaimedDatabaseBytes() - databaseBytesBefore,
+                    audioFileService.getReclaimedDiskBytes() - diskBytesBefore,
+                    System.currentTimeMillis() - startedAt);
+        }
+    }
+}
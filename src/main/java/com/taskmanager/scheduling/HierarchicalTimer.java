@@ -0,0 +1,117 @@
+package com.taskmanager.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * HierarchicalTimer - таймер на иерархическом колесе (схема Varghese-Lauck)
+ *
+ * Добавление и отмена - O(1) независимо от числа записей; потоков нет, кроме
+ * вызывающего advanceClock(). Точность - tickMs нижнего уровня.
+ * Сработавшие действия выполняются в переданном Executor, не под блокировкой.
+ */
+public class HierarchicalTimer {
+
+    private final DelayQueue<TimerBucket> delayQueue = new DelayQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger();
+    private final TimingWheel wheel;
+    private final Executor executor;
+
+    public HierarchicalTimer(long tickMs, int wheelSize, Executor executor) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs и wheelSize должны быть положительными");
+        }
+        this.executor = executor;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), delayQueue);
+    }
+
+    /**
+     * Запланировать действие на момент expirationMs (epoch millis);
+     * прошедший срок выполняется сразу
+     */
+    public TimerEntry schedule(long expirationMs, Runnable action) {
+        TimerEntry entry = new TimerEntry(expirationMs, action);
+        boolean added;
+        lock.lock();
+        try {
+            added = wheel.add(entry);
+        } finally {
+            lock.unlock();
+        }
+
+        if (added) {
+            size.incrementAndGet();
+        } else {
+            executor.execute(action);
+        }
+        return entry;
+    }
+
+    /**
+     * Отменить запись
+     *
+     * @return false, если запись уже сработала или отменена
+     */
+    public boolean cancel(TimerEntry entry) {
+        lock.lock();
+        try {
+            TimerBucket bucket = entry.bucket;
+            if (bucket == null) {
+                return false;
+            }
+            bucket.remove(entry);
+        } finally {
+            lock.unlock();
+        }
+        size.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Дождаться ближайшей корзины (не дольше timeoutMs) и выполнить наступившие записи
+     *
+     * @return true, если корзина была обработана
+     */
+    public boolean advanceClock(long timeoutMs) throws InterruptedException {
+        TimerBucket bucket = delayQueue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return false;
+        }
+
+        List<Runnable> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (bucket != null) {
+                wheel.advanceClock(bucket.getExpiration());
+                // Записи верхних уровней опускаются ниже, наступившие - выполняются
+                bucket.flush(entry -> {
+                    if (!wheel.add(entry)) {
+                        due.add(entry.getAction());
+                    }
+                });
+                bucket = delayQueue.poll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        size.addAndGet(-due.size());
+        for (Runnable action : due) {
+            executor.execute(action);
+        }
+        return true;
+    }
+
+    /**
+     * Количество ожидающих записей
+     */
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,215 @@
+package com.taskmanager.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * PartitionLeaseManager - раздача фоновой работы между узлами через аренду партиций в БД
+ *
+ * Работа делится на partitions партиций (для задач - id mod partitions). Каждая партиция -
+ * строка scheduler_lease с владельцем и сроком аренды; живые узлы отмечаются в scheduler_node.
+ * На каждом heartbeat узел продлевает свои аренды, отдаёт лишние сверх справедливой доли
+ * (ceil(partitions / живые узлы)) и добирает недостающие из свободных или просроченных строк
+ * через FOR UPDATE SKIP LOCKED. Доля упавшего узла переходит к остальным через lease-ttl-seconds.
+ *
+ * Время аренды считается по часам БД, поэтому расхождение часов узлов не важно.
+ * Число партиций должно совпадать на всех узлах.
+ */
+@Component
+public class PartitionLeaseManager {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionLeaseManager.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${taskmanager.cluster.partitions:16}")
+    private int partitionCount;
+
+    @Value("${taskmanager.cluster.lease-ttl-seconds:30}")
+    private int leaseTtlSeconds;
+
+    // Пусто - host:pid:случайный суффикс
+    @Value("${taskmanager.cluster.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private volatile Set<Integer> owned = Set.of();
+    // До какого момента (System.nanoTime) свои аренды гарантированно действуют
+    private volatile long validUntilNanos;
+    private volatile boolean started;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+        jdbcTemplate.update("INSERT INTO scheduler_lease (partition_no) " +
+                "SELECT generate_series(0, ? - 1) ON CONFLICT (partition_no) DO NOTHING", partitionCount);
+        started = true;
+        log.info("🤝 Узел {}: {} партиций фоновой работы", nodeId, partitionCount);
+        heartbeat();
+    }
+
+    /**
+     * Продлить свои аренды и перераспределить партиции между живыми узлами
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.cluster.heartbeat-ms:10000}")
+    public synchronized void heartbeat() {
+        if (!started) {
+            return;
+        }
+
+        long beganAt = System.nanoTime();
+        try {
+            jdbcTemplate.update("INSERT INTO scheduler_node (node_id, heartbeat_at) VALUES (?, now()) " +
+                    "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()", nodeId);
+            jdbcTemplate.update("DELETE FROM scheduler_node WHERE heartbeat_at < now() - make_interval(secs => ?)",
+                    leaseTtlSeconds);
+            Integer liveNodes = jdbcTemplate.queryForObject("SELECT count(*) FROM scheduler_node", Integer.class);
+            int fairShare = (partitionCount + Math.max(1, liveNodes) - 1) / Math.max(1, liveNodes);
+
+            Set<Integer> held = new TreeSet<>(jdbcTemplate.queryForList(
+                    "UPDATE scheduler_lease SET expires_at = now() + make_interval(secs => ?) " +
+                    "WHERE owner = ? AND expires_at > now() RETURNING partition_no",
+                    Integer.class, leaseTtlSeconds, nodeId));
+
+            if (held.size() > fairShare) {
+                held.removeAll(release(held, held.size() - fairShare));
+            } else if (held.size() < fairShare) {
+                held.addAll(jdbcTemplate.queryForList(
+                        "UPDATE scheduler_lease SET owner = ?, expires_at = now() + make_interval(secs => ?) " +
+                        "WHERE partition_no IN (SELECT partition_no FROM scheduler_lease " +
+                        "WHERE owner IS NULL OR expires_at <= now() ORDER BY partition_no LIMIT ? " +
+                        "FOR UPDATE SKIP LOCKED) RETURNING partition_no",
+                        Integer.class, nodeId, leaseTtlSeconds, fairShare - held.size()));
+            }
+
+            validUntilNanos = beganAt + leaseTtlSeconds * 1_000_000_000L;
+            updateOwned(held);
+        } catch (DataAccessException e) {
+            // Аренды истекут сами, если БД недоступна дольше lease-ttl-seconds
+            log.error("❌ Heartbeat узла {} не удался: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Отдать все аренды при остановке, чтобы другие узлы забрали их сразу, а не через TTL
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        try {
+            jdbcTemplate.update("UPDATE scheduler_lease SET owner = NULL, expires_at = NULL WHERE owner = ?", nodeId);
+            jdbcTemplate.update("DELETE FROM scheduler_node WHERE node_id = ?", nodeId);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Не удалось освободить аренды узла {}: {}", nodeId, e.getMessage());
+        }
+        updateOwned(Set.of());
+    }
+
+    // ==================== ЗАПРОСЫ ВЛАДЕНИЯ ====================
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public int partitionOf(long taskId) {
+        return (int) Math.floorMod(taskId, (long) partitionCount);
+    }
+
+    /**
+     * Партиции, закреплённые за узлом по последнему heartbeat
+     */
+    public Set<Integer> getOwnedPartitions() {
+        return owned;
+    }
+
+    /**
+     * Закреплена ли задача за узлом (для распределения работы)
+     */
+    public boolean isAssigned(long taskId) {
+        return owned.contains(partitionOf(taskId));
+    }
+
+    /**
+     * Закреплена ли задача за узлом и аренда ещё действует (проверка перед выполнением работы)
+     */
+    public boolean owns(long taskId) {
+        return isAssigned(taskId) && System.nanoTime() - validUntilNanos < 0;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ====================
+
+    /**
+     * Освободить count партиций с наибольшими номерами
+     */
+    private List<Integer> release(Set<Integer> held, int count) {
+        List<Integer> excess = new ArrayList<>(held);
+        Collections.reverse(excess);
+        excess = excess.subList(0, count);
+
+        String placeholders = excess.stream().map(p -> "?").collect(Collectors.joining(", "));
+        List<Object> args = new ArrayList<>(excess);
+        args.add(0, nodeId);
+        jdbcTemplate.update("UPDATE scheduler_lease SET owner = NULL, expires_at = NULL " +
+                "WHERE owner = ? AND partition_no IN (" + placeholders + ")", args.toArray());
+        return excess;
+    }
+
+    private void updateOwned(Set<Integer> current) {
+        Set<Integer> previous = owned;
+        if (previous.equals(current)) {
+            return;
+        }
+
+        Set<Integer> gained = new HashSet<>(current);
+        gained.removeAll(previous);
+        Set<Integer> lost = new HashSet<>(previous);
+        lost.removeAll(current);
+
+        owned = Set.copyOf(current);
+        log.info("🤝 Узел {}: партиции {} (+{}, -{})", nodeId, new TreeSet<>(current), gained.size(), lost.size());
+        eventPublisher.publishEvent(new PartitionsChangedEvent(gained, lost));
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":" +
+                UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskmanager.scheduling;
+
+import java.util.Set;
+
+/**
+ * PartitionsChangedEvent - узел получил или потерял партиции фоновой работы
+ *
+ * Публикуется PartitionLeaseManager синхронно из потока heartbeat.
+ */
+public class PartitionsChangedEvent {
+
+    private final Set<Integer> gained;
+    private final Set<Integer> lost;
+
+    public PartitionsChangedEvent(Set<Integer> gained, Set<Integer> lost) {
+        this.gained = Set.copyOf(gained);
+        this.lost = Set.copyOf(lost);
+    }
+
+    public Set<Integer> getGained() {
+        return gained;
+    }
+
+    public Set<Integer> getLost() {
+        return lost;
+    }
+}
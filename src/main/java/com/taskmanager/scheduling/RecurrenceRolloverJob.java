@@ -0,0 +1,48 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.service.TaskService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * RecurrenceRolloverJob - создаёт следующие копии завершённых повторяющихся задач
+ *
+ * Подхватывает задачи, завершённые мимо TaskService.completeTasks (редактирование,
+ * другие узлы). Пачки забираются через FOR UPDATE SKIP LOCKED, поэтому задание
+ * может одновременно работать на всех узлах без лидера и без дублей.
+ */
+@Component
+public class RecurrenceRolloverJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceRolloverJob.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Value("${taskmanager.recurrence.rollover-batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${taskmanager.recurrence.rollover-interval-ms:30000}",
+            initialDelayString = "${taskmanager.recurrence.rollover-interval-ms:30000}")
+    public void run() {
+        try {
+            int total = 0;
+            int claimed;
+            // Каждая пачка - отдельная транзакция: блокировки держатся недолго
+            do {
+                claimed = taskService.rollOverCompletedRecurrences(batchSize);
+                total += claimed;
+            } while (claimed == batchSize);
+
+            if (total > 0) {
+                log.info("🔁 Созданы следующие копии для {} повторяющихся задач", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Ошибка ролловера повторяющихся задач: {}", e.getMessage());
+        }
+    }
+}
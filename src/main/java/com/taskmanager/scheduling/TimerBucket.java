@@ -0,0 +1,85 @@
+package com.taskmanager.scheduling;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * TimerBucket - ячейка колеса: список записей с общим сроком
+ *
+ * В DelayQueue стоят корзины, а не записи, поэтому очередь содержит не больше
+ * (число уровней x размер колеса) элементов при любом количестве записей.
+ * Список меняется только под блокировкой HierarchicalTimer.
+ */
+final class TimerBucket implements Delayed {
+
+    // Сторож кольцевого списка
+    private final TimerEntry root = new TimerEntry(-1, null);
+
+    // Срок корзины (начало её интервала) или -1, если корзина не стоит в очереди
+    private volatile long expirationMs = -1;
+
+    TimerBucket() {
+        root.next = root;
+        root.prev = root;
+    }
+
+    /**
+     * Установить срок корзины
+     *
+     * @return true, если срок изменился и корзину нужно (заново) поставить в DelayQueue
+     */
+    boolean setExpiration(long expirationMs) {
+        long previous = this.expirationMs;
+        this.expirationMs = expirationMs;
+        return previous != expirationMs;
+    }
+
+    long getExpiration() {
+        return expirationMs;
+    }
+
+    void add(TimerEntry entry) {
+        TimerEntry tail = root.prev;
+        entry.next = root;
+        entry.prev = tail;
+        entry.bucket = this;
+        tail.next = entry;
+        root.prev = entry;
+    }
+
+    void remove(TimerEntry entry) {
+        if (entry.bucket != this) {
+            return;
+        }
+        entry.next.prev = entry.prev;
+        entry.prev.next = entry.next;
+        entry.next = null;
+        entry.prev = null;
+        entry.bucket = null;
+    }
+
+    /**
+     * Забрать все записи (корзина становится пустой и снимается со срока)
+     */
+    void flush(Consumer<TimerEntry> consumer) {
+        TimerEntry entry = root.next;
+        while (entry != root) {
+            TimerEntry next = entry.next;
+            remove(entry);
+            consumer.accept(entry);
+            entry = next;
+        }
+        expirationMs = -1;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(expirationMs - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(expirationMs, ((TimerBucket) other).expirationMs);
+    }
+}
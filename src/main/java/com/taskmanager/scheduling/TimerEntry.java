@@ -0,0 +1,33 @@
+package com.taskmanager.scheduling;
+
+/**
+ * TimerEntry - отложенное действие в HierarchicalTimer
+ *
+ * Узел двусвязного списка своей корзины: отмена и перенос между уровнями колеса - O(1).
+ * Поля bucket/prev/next меняются только под блокировкой таймера.
+ */
+public final class TimerEntry {
+
+    private final long expirationMs;
+    private final Runnable action;
+
+    TimerBucket bucket;
+    TimerEntry prev;
+    TimerEntry next;
+
+    TimerEntry(long expirationMs, Runnable action) {
+        this.expirationMs = expirationMs;
+        this.action = action;
+    }
+
+    /**
+     * Момент срабатывания (epoch millis)
+     */
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    public Runnable getAction() {
+        return action;
+    }
+}
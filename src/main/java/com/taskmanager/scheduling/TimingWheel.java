@@ -0,0 +1,75 @@
+package com.taskmanager.scheduling;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * TimingWheel - один уровень иерархического колеса
+ *
+ * wheelSize корзин по tickMs; запись дальше interval уходит в следующий
+ * (более грубый) уровень, который создаётся по требованию. Когда время доходит
+ * до корзины верхнего уровня, её записи перекладываются вниз или срабатывают.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+
+    // Начало текущего тика, всегда кратно tickMs
+    private long currentTimeMs;
+
+    private TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+    }
+
+    /**
+     * Положить запись в колесо
+     *
+     * @return false, если срок уже наступил (запись нужно выполнить сразу)
+     */
+    boolean add(TimerEntry entry) {
+        long expiration = entry.getExpirationMs();
+        if (expiration < currentTimeMs + tickMs) {
+            return false;
+        }
+
+        if (expiration < currentTimeMs + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTimeMs, queue);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    /**
+     * Сдвинуть текущее время уровня (и всех верхних уровней)
+     */
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTimeMs + tickMs) {
+            currentTimeMs = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTimeMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Alert;
+import com.taskmanager.model.AlertType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AlertCoalescer - склейка всплесков оповещений по ключу (taskId, AlertType)
+ *
+ * Первое оповещение ключа отдаётся сразу (submit возвращает его для записи) и открывает окно
+ * длиной windowMillis; следующие в пределах окна склеиваются в одно повторное оповещение:
+ * occurrenceCount растёт, текст заменяется последним. По истечении окна повторное
+ * оповещение отдаётся в drain() и записывается одним батчем вместе с остальными; окно без
+ * повторов закрывается молча. Одиночное оповещение, таким образом, не ждёт окна.
+ */
+class AlertCoalescer {
+
+    private final long windowMillis;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    AlertCoalescer(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Добавить оповещение
+     *
+     * @return оповещение для немедленной записи (первое в окне) или null, если оно склеено
+     */
+    Alert submit(Long taskId, LocalDateTime alertTime, AlertType type, String message) {
+        long now = System.currentTimeMillis();
+        Alert[] leading = new Alert[1];
+        pending.compute(new Key(taskId, type), (key, current) -> {
+            // Окно истекло, а повторов не было - оно просто ещё не убрано drain()
+            if (current == null || (current.followUp == null && current.closesAt <= now)) {
+                leading[0] = newAlert(taskId, alertTime, type, message);
+                return new Pending(now + windowMillis);
+            }
+            if (current.followUp == null) {
+                current.followUp = newAlert(taskId, alertTime, type, message);
+            } else {
+                current.followUp.setMessage(message);
+                current.followUp.setOccurrenceCount(current.followUp.getOccurrenceCount() + 1);
+            }
+            return current;
+        });
+        return leading[0];
+    }
+
+    /**
+     * Вернуть оповещение, которое не удалось записать; уйдёт со следующим drain()
+     * (или с окончанием открытого окна, склеившись с его повторами)
+     */
+    void requeue(Alert alert) {
+        alert.setId(null);
+        pending.merge(new Key(alert.getTaskId(), alert.getType()), new Pending(System.currentTimeMillis(), alert),
+                (current, returned) -> {
+                    if (current.followUp == null) {
+                        current.followUp = alert;
+                    } else {
+                        // Текст у открытого окна новее - оставляем его, время - самое раннее
+                        current.followUp.setAlertTime(alert.getAlertTime());
+                        current.followUp.setOccurrenceCount(
+                                current.followUp.getOccurrenceCount() + alert.getOccurrenceCount());
+                    }
+                    return current;
+                });
+    }
+
+    /**
+     * Забрать повторные оповещения закрытых окон (force - все, например при остановке)
+     */
+    List<Alert> drain(boolean force) {
+        long now = System.currentTimeMillis();
+        List<Alert> ready = new ArrayList<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            Pending candidate = entry.getValue();
+            // remove(key, value) - окно не отдаётся дважды и не теряет склейку, пришедшую после проверки
+            if ((force || candidate.closesAt <= now) && pending.remove(entry.getKey(), candidate)
+                    && candidate.followUp != null) {
+                ready.add(candidate.followUp);
+            }
+        }
+        return ready;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    private static Alert newAlert(Long taskId, LocalDateTime alertTime, AlertType type, String message) {
+        Alert alert = new Alert();
+        alert.setTaskId(taskId);
+        alert.setAlertTime(alertTime);
+        alert.setType(type);
+        alert.setMessage(message);
+        alert.setIsRead(false);
+        alert.setOccurrenceCount(1);
+        return alert;
+    }
+
+    /**
+     * Открытое окно ключа; followUp меняется только внутри compute/merge по этому ключу
+     */
+    private static final class Pending {
+        private final long closesAt;
+        private Alert followUp;
+
+        private Pending(long closesAt) {
+            this.closesAt = closesAt;
+        }
+
+        private Pending(long closesAt, Alert followUp) {
+            this.closesAt = closesAt;
+            this.followUp = followUp;
+        }
+    }
+
+    private static final class Key {
+        private final Long taskId;
+        private final AlertType type;
+
+        private Key(Long taskId, AlertType type) {
+            this.taskId = taskId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(taskId, other.taskId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(taskId, type);
+        }
+    }
+}
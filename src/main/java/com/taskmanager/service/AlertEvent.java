@@ -0,0 +1,66 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Alert;
+
+/**
+ * AlertEvent - изменение оповещения, публикуется AlertService через ApplicationEventPublisher
+ *
+ * Подписчики получают дельту вместо перечитывания всех непрочитанных оповещений.
+ */
+public class AlertEvent {
+
+    public enum Kind {
+        CREATED,    // alert - сохранённое оповещение
+        READ,       // оповещение помечено прочитанным
+        DELETED,    // оповещение удалено
+        BULK_READ   // несколько оповещений помечены прочитанными одним UPDATE (alertId == null)
+    }
+
+    private final Kind kind;
+    private final Long alertId;
+    private final Alert alert;
+    // Изменилось ли число непрочитанных (-1, 0 или +1)
+    private final int unreadDelta;
+
+    private AlertEvent(Kind kind, Long alertId, Alert alert, int unreadDelta) {
+        this.kind = kind;
+        this.alertId = alertId;
+        this.alert = alert;
+        this.unreadDelta = unreadDelta;
+    }
+
+    public static AlertEvent created(Alert alert) {
+        return new AlertEvent(Kind.CREATED, alert.getId(), alert, Boolean.TRUE.equals(alert.getIsRead()) ? 0 : 1);
+    }
+
+    public static AlertEvent read(Long alertId) {
+        return new AlertEvent(Kind.READ, alertId, null, -1);
+    }
+
+    public static AlertEvent deleted(Long alertId, boolean wasUnread) {
+        return new AlertEvent(Kind.DELETED, alertId, null, wasUnread ? -1 : 0);
+    }
+
+    public static AlertEvent bulkRead(int count) {
+        return new AlertEvent(Kind.BULK_READ, null, null, -count);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getAlertId() {
+        return alertId;
+    }
+
+    /**
+     * Оповещение целиком (только для CREATED)
+     */
+    public Alert getAlert() {
+        return alert;
+    }
+
+    public int getUnreadDelta() {
+        return unreadDelta;
+    }
+}
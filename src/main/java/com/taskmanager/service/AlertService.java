@@ -3,7 +3,16 @@ package com.taskmanager.service;
 import com.taskmanager.dao.AlertRepository;
 import com.taskmanager.model.Alert;
 import com.taskmanager.model.AlertType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,26 +20,133 @@ import java.util.List;
 @Service
 public class AlertService {
 
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private AlertRepository alertRepository;
 
-    // Создать оповещение
-    public Alert createAlert(Long taskId, LocalDateTime alertTime, AlertType type, String message) {
-        Alert alert = new Alert();
-        alert.setTaskId(taskId);
-        alert.setAlertTime(alertTime);
-        alert.setType(type);
-        alert.setMessage(message);
-        alert.setIsRead(false);
+    // Подписчики (UI) получают AlertEvent после коммита вместо периодического опроса
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Окно склейки оповещений одной задачи и типа; 0 - писать каждое сразу
+    @Value("${taskmanager.alerts.coalesce-window-ms:5000}")
+    private long coalesceWindowMs;
+
+    // Больше стольких открытых окон - сбросить все сразу, не дожидаясь таймера
+    @Value("${taskmanager.alerts.coalesce-max-pending:10000}")
+    private int coalesceMaxPending;
+
+    private AlertCoalescer coalescer;
+
+    @PostConstruct
+    void initCoalescer() {
+        coalescer = new AlertCoalescer(Math.max(0, coalesceWindowMs));
+    }
+
+    /**
+     * Создать оповещение
+     *
+     * Первое оповещение задачи и типа пишется сразу; следующие в пределах окна склеиваются
+     * в одно (occurrenceCount) и пишутся батчем в flushAlerts(). AlertEvent.CREATED
+     * публикуется после записи.
+     */
+    public void createAlert(Long taskId, LocalDateTime alertTime, AlertType type, String message) {
+        Alert leading = coalescer.submit(taskId, alertTime, type, message);
+        if (leading != null) {
+            write(List.of(leading));
+        }
+        if (coalesceWindowMs <= 0 || coalescer.size() > coalesceMaxPending) {
+            flush(true);
+        }
+    }
+
+    /**
+     * Записать оповещения с закрытым окном склейки
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.alerts.coalesce-flush-ms:1000}")
+    public void flushAlerts() {
+        flush(false);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush(true);
+    }
 
-        return alertRepository.save(alert);
+    private void flush(boolean force) {
+        List<Alert> ready = coalescer.drain(force);
+        if (!ready.isEmpty()) {
+            write(ready);
+        }
+    }
+
+    /**
+     * Записать оповещения батчем; если батч не прошёл - по одному, чтобы одно плохое
+     * оповещение не потянуло за собой остальные. Не записанные из-за недоступности БД
+     * возвращаются в coalescer и повторяются при следующем flushAlerts().
+     */
+    private void write(List<Alert> alerts) {
+        try {
+            // Пул id из alert_id_seq - Hibernate отправляет INSERT-ы JDBC-батчами
+            publishCreated(alertRepository.saveAll(alerts));
+            return;
+        } catch (RuntimeException e) {
+            if (alerts.size() > 1) {
+                log.warn("⚠️ Не удалось записать {} оповещений батчем, пишем по одному: {}", alerts.size(), e.getMessage());
+            } else {
+                handleWriteFailure(alerts.get(0), e);
+                return;
+            }
+        }
+
+        for (Alert alert : alerts) {
+            // id мог быть назначен в откатившемся батче - иначе save() примет оповещение за существующее
+            alert.setId(null);
+            try {
+                publishCreated(List.of(alertRepository.save(alert)));
+            } catch (RuntimeException e) {
+                handleWriteFailure(alert, e);
+            }
+        }
     }
 
-    // Получить все непрочитанные оповещения
+    private void handleWriteFailure(Alert alert, RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            // Повтор не поможет
+            log.error("❌ Оповещение задачи {} отброшено: {}", alert.getTaskId(), e.getMessage());
+        } else {
+            log.error("❌ Не удалось записать оповещение задачи {}, повторим позже: {}", alert.getTaskId(), e.getMessage());
+            coalescer.requeue(alert);
+        }
+    }
+
+    private void publishCreated(List<Alert> saved) {
+        for (Alert alert : saved) {
+            eventPublisher.publishEvent(AlertEvent.created(alert));
+        }
+    }
+
+    // Получить все непрочитанные оповещения (для UI используйте getUnreadAlertsPage)
     public List<Alert> getUnreadAlerts() {
         return alertRepository.findByIsReadFalse();
     }
 
+    // Количество непрочитанных оповещений
+    public long countUnreadAlerts() {
+        return alertRepository.countByIsReadFalse();
+    }
+
+    // Страница непрочитанных оповещений, новые сверху; after - последнее оповещение предыдущей страницы или null
+    public List<Alert> getUnreadAlertsPage(Alert after, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return after == null
+                ? alertRepository.findUnreadFirstPage(page)
+                : alertRepository.findUnreadPageAfter(after.getAlertTime(), after.getId(), page);
+    }
+
     // Получить оповещения по задаче
     public List<Alert> getAlertsByTask(Long taskId) {
         return alertRepository.findByTaskId(taskId);
@@ -45,14 +161,64 @@ public class AlertService {
     public Alert markAsRead(Long alertId) {
         Alert alert = alertRepository.findById(alertId).orElse(null);
         if (alert != null) {
+            boolean wasUnread = !Boolean.TRUE.equals(alert.getIsRead());
             alert.setIsRead(true);
-            return alertRepository.save(alert);
+            Alert saved = alertRepository.save(alert);
+            if (wasUnread) {
+                eventPublisher.publishEvent(AlertEvent.read(alertId));
+            }
+            return saved;
         }
         return null;
     }
 
+    // Отметить прочитанными все оповещения задачи (один UPDATE)
+    public int markAllReadForTask(Long taskId) {
+        return afterBulkRead(alertRepository.markAllReadByTaskId(taskId));
+    }
+
+    // Отметить прочитанными все оповещения типа (один UPDATE)
+    public int markAllReadOfType(AlertType type) {
+        return afterBulkRead(alertRepository.markAllReadByType(type));
+    }
+
+    // Отметить прочитанными все оповещения старше before (один UPDATE)
+    public int markAllReadBefore(LocalDateTime before) {
+        return afterBulkRead(alertRepository.markAllReadBefore(before));
+    }
+
+    /**
+     * Удалить (или перенести в alerts_archive) прочитанные оповещения старше before
+     *
+     * Каждая пачка - отдельная короткая транзакция, так что блокировки не копятся.
+     *
+     * @return количество удалённых строк
+     */
+    public long purgeReadAlerts(LocalDateTime before, int batchSize, boolean archive) {
+        int limit = Math.max(1, batchSize);
+        long total = 0;
+        int purged;
+        do {
+            purged = archive
+                    ? alertRepository.archiveReadBefore(before, limit)
+                    : alertRepository.deleteReadBefore(before, limit);
+            total += purged;
+        } while (purged == limit);
+        return total;
+    }
+
+    private int afterBulkRead(int updated) {
+        if (updated > 0) {
+            eventPublisher.publishEvent(AlertEvent.bulkRead(updated));
+        }
+        return updated;
+    }
+
     // Удалить оповещение
     public void deleteAlert(Long alertId) {
-        alertRepository.deleteById(alertId);
+        alertRepository.findById(alertId).ifPresent(alert -> {
+            alertRepository.delete(alert);
+            eventPublisher.publishEvent(AlertEvent.deleted(alertId, !Boolean.TRUE.equals(alert.getIsRead())));
+        });
     }
 }
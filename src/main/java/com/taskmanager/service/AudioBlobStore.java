@@ -0,0 +1,290 @@
+package com.taskmanager.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * AudioBlobStore - контентно-адресуемое хранилище аудио на локальном диске
+ *
+ * Файл называется SHA-256 своего содержимого и лежит в root/ab/cd/abcd...; запись идёт
+ * во временный файл с fsync и атомарным переименованием, поэтому читатель никогда не увидит
+ * недописанный файл. Одинаковые записи (например, повторная загрузка из Telegram) хранятся
+ * один раз: число ссылок из audio_files ведётся в таблице audio_blobs.
+ *
+ * Изменения счётчика выполняются в транзакции вызывающего (AudioFileService) под
+ * advisory-блокировкой по хэшу: сохранение и удаление одного и того же содержимого
+ * не пересекаются, и файл не удаляется из-под только что добавленной ссылки.
+ * Файлы удаляются только после завершения транзакции (после коммита - снятые ссылки,
+ * после отката - только что перенесённые в хранилище), и только если строки в audio_blobs нет.
+ */
+@Component
+public class AudioBlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioBlobStore.class);
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${taskmanager.audio.store-dir:data/audio}")
+    private String storeDir;
+
+    private Path root;
+    private Path tmpDir;
+    private TransactionTemplate cleanupTransaction;
+
+    @PostConstruct
+    void init() {
+        root = Paths.get(storeDir).toAbsolutePath();
+        // Временные файлы на том же разделе, что и хранилище, - иначе rename не атомарен
+        tmpDir = root.resolve("tmp");
+        // Транзакция вызывающего к моменту уборки уже завершена - проверка идёт в отдельной
+        cleanupTransaction = new TransactionTemplate(transactionManager);
+        cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Сохранить содержимое и добавить на него ссылку
+     *
+     * Вызывать внутри транзакции: при откате ссылка откатится, а файл, перенесённый
+     * в хранилище этим вызовом, будет удалён.
+     *
+     * @return SHA-256 содержимого (hex)
+     */
+    public String store(InputStream data) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(tmpDir);
+            tmp = Files.createTempFile(tmpDir, "blob-", ".part");
+            MessageDigest digest = sha256();
+            try (DigestInputStream in = new DigestInputStream(data, digest);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                byte[] buffer = new byte[COPY_BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                }
+                out.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            publish(tmp, hash);
+            tmp = null;
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить аудио в " + root, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("⚠️ Не удалось удалить временный файл {}: {}", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Сохранить подготовленный файл (см. stagingPath) и добавить на него ссылку
+     *
+     * Хэш считается потоково, файл переносится в хранилище переименованием без копирования.
+     * Вызывать внутри транзакции, как и store.
+     *
+     * @return SHA-256 содержимого (hex)
+     */
+    public String storeStaged(Path staged) {
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(staged), digest)) {
+                byte[] buffer = new byte[COPY_BUFFER_BYTES];
+                while (in.read(buffer) != -1) {
+                    // только считаем хэш
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            publish(staged, hash);
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить аудио в " + root, e);
+        }
+    }
+
+    /**
+     * Путь для поэтапной записи загрузки; лежит на том же разделе, что и хранилище
+     */
+    public Path stagingPath(String uploadId) throws IOException {
+        Files.createDirectories(tmpDir);
+        return tmpDir.resolve("upload-" + uploadId + ".part");
+    }
+
+    /**
+     * Перенести готовый временный файл на место по хэшу (или удалить, если такое содержимое
+     * уже есть) и добавить ссылку
+     */
+    private void publish(Path tmp, String hash) throws IOException {
+        long size = Files.size(tmp);
+
+        lock(hash);
+        Path target = pathOf(hash);
+        if (Files.exists(target)) {
+            Files.delete(tmp);
+        } else {
+            Files.createDirectories(target.getParent());
+            moveAtomically(tmp, target);
+            afterCompletion(hash, TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        jdbcTemplate.update(
+                "INSERT INTO audio_blobs (hash, size_bytes, ref_count) VALUES (?, ?, 1) " +
+                "ON CONFLICT (hash) DO UPDATE SET ref_count = audio_blobs.ref_count + 1",
+                hash, size);
+    }
+
+    /**
+     * Снять ссылку; файл удаляется после коммита, когда ссылок не осталось
+     *
+     * Вызывать внутри транзакции вместе с удалением строки audio_files: при откате
+     * ссылка и файл остаются на месте.
+     *
+     * @return сколько байт освободится на диске (0, если на содержимое ещё есть ссылки)
+     */
+    public long release(String hash) {
+        lock(hash);
+        List<Long> removed = jdbcTemplate.queryForList(
+                "DELETE FROM audio_blobs WHERE hash = ? AND ref_count <= 1 RETURNING size_bytes", Long.class, hash);
+        if (removed.isEmpty()) {
+            jdbcTemplate.update("UPDATE audio_blobs SET ref_count = ref_count - 1 WHERE hash = ?", hash);
+            return 0;
+        }
+        afterCompletion(hash, TransactionSynchronization.STATUS_COMMITTED);
+        return removed.get(0);
+    }
+
+    /**
+     * Открыть содержимое на чтение; FileChannel поддерживает transferTo (zero-copy) и map
+     */
+    public FileChannel open(String hash) throws IOException {
+        try {
+            return FileChannel.open(pathOf(hash), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Аудио " + hash + " отсутствует в хранилище " + root, e);
+        }
+    }
+
+    /**
+     * Отобразить содержимое в память только для чтения
+     *
+     * Отображение остаётся действительным после закрытия канала и освобождается сборщиком мусора.
+     */
+    public MappedByteBuffer map(String hash) throws IOException {
+        try (FileChannel channel = open(hash)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Аудио " + hash + " больше 2 ГБ и не может быть отображено в память");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Удалить файл по завершении транзакции с нужным исходом; без транзакции - сразу
+     */
+    private void afterCompletion(String hash, int expectedStatus) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (expectedStatus == TransactionSynchronization.STATUS_COMMITTED) {
+                deleteIfUnreferenced(hash);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == expectedStatus) {
+                    deleteIfUnreferenced(hash);
+                }
+            }
+        });
+    }
+
+    /**
+     * Удалить файл, если на содержимое нет ссылок; под той же блокировкой, что и publish,
+     * поэтому файл не пропадёт из-под параллельного сохранения того же содержимого
+     */
+    private void deleteIfUnreferenced(String hash) {
+        try {
+            cleanupTransaction.executeWithoutResult(status -> {
+                lock(hash);
+                Integer references = jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM audio_blobs WHERE hash = ?", Integer.class, hash);
+                if (references != null && references == 0) {
+                    try {
+                        Files.deleteIfExists(pathOf(hash));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Файл без ссылок безвреден: при повторном сохранении того же содержимого он переиспользуется
+            log.warn("⚠️ Не удалось удалить аудио {}: {}", hash, e.getMessage());
+        }
+    }
+
+    Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private void lock(String hash) {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class, hash);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            throw new IOException("Файловая система " + target.getParent() + " не поддерживает атомарное переименование", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dao.AudioFileRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * AudioChunkChannel - последовательное чтение audio_data кусками по chunkSize байт
+ *
+ * Каждый кусок - отдельный запрос substring(...), в памяти держится не больше одного куска.
+ */
+class AudioChunkChannel implements ReadableByteChannel {
+
+    private final AudioFileRepository repository;
+    private final Long audioFileId;
+    private final long length;
+    private final int chunkSize;
+
+    private ByteBuffer chunk = ByteBuffer.allocate(0);
+    // Сколько байт уже прочитано из БД
+    private long fetched;
+    private boolean open = true;
+
+    AudioChunkChannel(AudioFileRepository repository, Long audioFileId, long length, int chunkSize) {
+        this.repository = repository;
+        this.audioFileId = audioFileId;
+        this.length = length;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        if (!chunk.hasRemaining()) {
+            if (fetched >= length) {
+                return -1;
+            }
+            int size = (int) Math.min(chunkSize, length - fetched);
+            byte[] bytes = repository.readAudioChunk(audioFileId, Math.toIntExact(fetched + 1), size);
+            if (bytes == null || bytes.length == 0) {
+                // Файл удалён или укорочен во время чтения
+                throw new IOException("Аудиофайл " + audioFileId + " изменился во время чтения");
+            }
+            fetched += bytes.length;
+            chunk = ByteBuffer.wrap(bytes);
+        }
+
+        int count = Math.min(dst.remaining(), chunk.remaining());
+        ByteBuffer slice = chunk.slice();
+        slice.limit(count);
+        dst.put(slice);
+        chunk.position(chunk.position() + count);
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        chunk = ByteBuffer.allocate(0);
+    }
+}
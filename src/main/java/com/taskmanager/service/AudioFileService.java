@@ -1,52 +1,295 @@
 package com.taskmanager.service;
 
 import com.taskmanager.dao.AudioFileRepository;
+import com.taskmanager.dto.AudioFileCursor;
+import com.taskmanager.dto.AudioFileInfoDTO;
+import com.taskmanager.dto.AudioFilePage;
 import com.taskmanager.model.AudioFile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * AudioFileService - хранение и чтение аудиозаписей
+ *
+ * Содержимое хранится либо в audio_files.audio_data (taskmanager.audio.storage=database),
+ * либо в контентно-адресуемом AudioBlobStore на диске (filesystem); тогда в строке остаются
+ * только метаданные и хэш. Чтение прозрачно для вызывающего и зависит от того, где лежит
+ * конкретная запись, поэтому режим можно переключать без переноса старых данных.
+ */
 @Service
 public class AudioFileService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private AudioFileRepository audioFileRepository;
 
+    @Autowired
+    private AudioBlobStore audioBlobStore;
+
+    // database | filesystem - куда писать новые записи
+    @Value("${taskmanager.audio.storage:database}")
+    private String storageMode;
+
+    // Сколько хранить запись (expires_at = created_at + retention-days)
+    @Value("${taskmanager.audio.retention-days:30}")
+    private long retentionDays;
+
+    // Метрики очистки истёкших записей (с момента старта)
+    private final AtomicLong purgedFiles = new AtomicLong();
+    private final AtomicLong reclaimedDatabaseBytes = new AtomicLong();
+    private final AtomicLong reclaimedDiskBytes = new AtomicLong();
+
+    // Размер куска при потоковом чтении содержимого
+    @Value("${taskmanager.audio.read-chunk-bytes:1048576}")
+    private int readChunkBytes;
+
     // Сохранить аудиофайл
+    @Transactional
     public AudioFile saveAudioFile(byte[] audioData, Integer duration, String fileName) {
         AudioFile audioFile = new AudioFile();
-        audioFile.setAudioData(audioData);
+        if (isFileStorage()) {
+            // Ссылка в audio_blobs добавляется в этой же транзакции
+            audioFile.setContentHash(audioBlobStore.store(new ByteArrayInputStream(audioData)));
+            audioFile.setFileSize((long) audioData.length);
+        } else {
+            audioFile.setAudioData(audioData);
+        }
         audioFile.setDurationSeconds(duration);
         audioFile.setFileName(fileName);
         audioFile.setCreatedAt(LocalDateTime.now());
+        audioFile.setExpiresAt(audioFile.getCreatedAt().plusDays(retentionDays));
 
         return audioFileRepository.save(audioFile);
     }
 
-    // Получить аудиофайл по ID
+    // Получить аудиофайл по ID (audioData загрузится только при обращении к нему;
+    // для записей в файловом хранилище audioData == null - читайте через openAudioChannel)
     public Optional<AudioFile> getAudioFile(Long id) {
         return audioFileRepository.findById(id);
     }
 
-    // Получить все аудиофайлы
-    public List<AudioFile> getAllAudioFiles() {
-        return audioFileRepository.findAll();
+    // Получить метаданные всех аудиофайлов (без содержимого)
+    public List<AudioFileInfoDTO> getAllAudioFiles() {
+        return audioFileRepository.findAllInfo();
+    }
+
+    // Получить метаданные аудиофайлов в диапазоне дат
+    public List<AudioFileInfoDTO> getAudioFilesByDateRange(LocalDateTime start, LocalDateTime end) {
+        return audioFileRepository.findInfoByCreatedAtBetween(start, end);
+    }
+
+    // Поиск по имени файла (метаданные, первые MAX_PAGE_SIZE совпадений - новые первыми)
+    public List<AudioFileInfoDTO> searchByFileName(String name) {
+        return searchByFileName(name, null, MAX_PAGE_SIZE).getItems();
+    }
+
+    /**
+     * Страница поиска по подстроке имени файла (keyset по createdAt DESC, id DESC)
+     *
+     * LIKE '%name%' идёт по trigram-индексу (для подстрок от 3 символов), строки - проекции
+     * без audio_data.
+     *
+     * @param after    курсор предыдущей страницы или null для первой страницы
+     * @param pageSize размер страницы (ограничен MAX_PAGE_SIZE)
+     */
+    public AudioFilePage searchByFileName(String name, AudioFileCursor after, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        // Берём на одну строку больше, чтобы узнать, есть ли следующая страница, без COUNT(*)
+        PageRequest limit = PageRequest.of(0, size + 1);
+        String pattern = containsPattern(name);
+
+        List<AudioFileInfoDTO> rows = after == null
+                ? audioFileRepository.findInfoByFileNameLike(pattern, limit)
+                : audioFileRepository.findInfoByFileNameLikeAfter(pattern, after.getCreatedAt(), after.getId(), limit);
+
+        if (rows.size() <= size) {
+            return new AudioFilePage(rows, null);
+        }
+
+        List<AudioFileInfoDTO> items = new ArrayList<>(rows.subList(0, size));
+        AudioFileInfoDTO last = items.get(size - 1);
+        return new AudioFilePage(items, new AudioFileCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    // '%name%' с экранированием спецсимволов LIKE, чтобы '_' и '%' в имени искались буквально
+    private static String containsPattern(String name) {
+        String escaped = (name == null ? "" : name)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Открыть содержимое аудиофайла для последовательного чтения
+     *
+     * Для файлового хранилища возвращается FileChannel, для БД - чтение кусками
+     * (в памяти не больше taskmanager.audio.read-chunk-bytes).
+     *
+     * @return пусто, если файла нет
+     */
+    public Optional<ReadableByteChannel> openAudioChannel(Long id) {
+        Optional<AudioFileInfoDTO> info = audioFileRepository.findInfoById(id);
+        if (info.isEmpty()) {
+            return Optional.empty();
+        }
+        String hash = info.get().getContentHash();
+        if (hash != null) {
+            try {
+                return Optional.of(audioBlobStore.open(hash));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Long length = audioFileRepository.findAudioLength(id);
+        if (length == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AudioChunkChannel(audioFileRepository, id, length, Math.max(1, readChunkBytes)));
+    }
+
+    /**
+     * Передать содержимое в канал (файл, сокет); для файлового хранилища -
+     * FileChannel.transferTo без копирования через память JVM
+     *
+     * @return число переданных байт; пусто, если файла нет
+     */
+    public Optional<Long> transferAudio(Long id, WritableByteChannel target) throws IOException {
+        Optional<ReadableByteChannel> opened = openAudioChannel(id);
+        if (opened.isEmpty()) {
+            return Optional.empty();
+        }
+        try (ReadableByteChannel source = opened.get()) {
+            long total = 0;
+            if (source instanceof FileChannel file) {
+                long size = file.size();
+                while (total < size) {
+                    total += file.transferTo(total, size - total, target);
+                }
+                return Optional.of(total);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(1, Math.min(readChunkBytes, 64 * 1024)));
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            return Optional.of(total);
+        }
     }
 
-    // Получить аудиофайлы в диапазоне дат
-    public List<AudioFile> getAudioFilesByDateRange(LocalDateTime start, LocalDateTime end) {
-        return audioFileRepository.findByCreatedAtBetween(start, end);
+    /**
+     * Содержимое целиком как read-only ByteBuffer
+     *
+     * Для файлового хранилища - отображение файла в память (без копирования в кучу),
+     * для БД - загруженный массив.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ByteBuffer> mapAudio(Long id) {
+        Optional<AudioFileInfoDTO> info = audioFileRepository.findInfoById(id);
+        if (info.isEmpty()) {
+            return Optional.empty();
+        }
+        String hash = info.get().getContentHash();
+        if (hash != null) {
+            try {
+                return Optional.of(audioBlobStore.map(hash));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return audioFileRepository.findById(id)
+                .map(AudioFile::getAudioData)
+                .map(data -> ByteBuffer.wrap(data).asReadOnlyBuffer());
     }
 
-    // Поиск по имени файла
-    public List<AudioFile> searchByFileName(String name) {
-        return audioFileRepository.findByFileNameContaining(name);
+    /**
+     * То же, что openAudioChannel, в виде InputStream
+     */
+    public Optional<InputStream> openAudioStream(Long id) {
+        return openAudioChannel(id).map(Channels::newInputStream);
     }
 
-    // Удалить аудиофайл
+    // Удалить аудиофайл (и снять ссылку на содержимое в файловом хранилище)
+    @Transactional
     public void deleteAudioFile(Long id) {
-        audioFileRepository.deleteById(id);
+        audioFileRepository.findInfoById(id).ifPresent(info -> {
+            audioFileRepository.deleteById(id);
+            if (info.getContentHash() != null) {
+                audioBlobStore.release(info.getContentHash());
+            }
+        });
+    }
+
+    /**
+     * Удалить одну пачку истёкших записей вместе с их содержимым в файловом хранилище
+     *
+     * Одна транзакция на пачку: строки и ссылки в audio_blobs удаляются вместе.
+     *
+     * @return число удалённых записей; меньше limit - истёкших больше нет
+     */
+    @Transactional
+    public int purgeExpiredBatch(LocalDateTime now, int limit) {
+        List<Object[]> expired = audioFileRepository.lockExpiredBatch(now, Math.max(1, limit));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(expired.size());
+        long databaseBytes = 0;
+        long diskBytes = 0;
+        for (Object[] row : expired) {
+            ids.add(((Number) row[0]).longValue());
+            long size = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            if (row[1] != null) {
+                diskBytes += audioBlobStore.release((String) row[1]);
+            } else {
+                databaseBytes += size;
+            }
+        }
+        audioFileRepository.deleteByIdIn(ids);
+
+        purgedFiles.addAndGet(ids.size());
+        reclaimedDatabaseBytes.addAndGet(databaseBytes);
+        reclaimedDiskBytes.addAndGet(diskBytes);
+        return expired.size();
+    }
+
+    public long getPurgedFilesCount() {
+        return purgedFiles.get();
+    }
+
+    // Байты audio_data удалённых записей (место в БД освободит autovacuum)
+    public long getReclaimedDatabaseBytes() {
+        return reclaimedDatabaseBytes.get();
+    }
+
+    // Байты файлов, удалённых из файлового хранилища
+    public long getReclaimedDiskBytes() {
+        return reclaimedDiskBytes.get();
+    }
+
+    private boolean isFileStorage() {
+        return "filesystem".equalsIgnoreCase(storageMode);
     }
 }
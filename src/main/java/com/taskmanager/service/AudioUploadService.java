@@ -0,0 +1,270 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dao.AudioFileRepository;
+import com.taskmanager.model.AudioFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * AudioUploadService - загрузка аудио частями с возобновлением
+ *
+ * beginUpload -> appendChunk (сколько угодно раз) -> commitUpload. Каждая часть сразу уходит
+ * в хранилище: при taskmanager.audio.storage=database - в таблицу audio_upload_chunks
+ * (при фиксации PostgreSQL склеивает части сам, в память JVM запись целиком не попадает),
+ * при filesystem - дописывается в файл рядом с AudioBlobStore и переносится в него переименованием.
+ * Поэтому память на одну загрузку ограничена размером части.
+ *
+ * Состояние загрузки (принятый объём) хранится в audio_uploads: после обрыва связи или
+ * перезапуска клиент узнаёт смещение через getUploadOffset и продолжает с него.
+ */
+@Service
+public class AudioUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioUploadService.class);
+
+    private static final String STORAGE_DATABASE = "database";
+    private static final String STORAGE_FILESYSTEM = "filesystem";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AudioFileRepository audioFileRepository;
+
+    @Autowired
+    private AudioBlobStore audioBlobStore;
+
+    @Value("${taskmanager.audio.storage:database}")
+    private String storageMode;
+
+    @Value("${taskmanager.audio.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${taskmanager.audio.upload.max-chunk-bytes:4194304}")
+    private int maxChunkBytes;
+
+    /**
+     * Начать загрузку
+     *
+     * @return идентификатор загрузки для appendChunk/commitUpload
+     */
+    @Transactional
+    public String beginUpload(String fileName, Integer durationSeconds) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("Имя файла не может быть пустым");
+        }
+        if (durationSeconds == null || durationSeconds < 0) {
+            throw new IllegalArgumentException("Некорректная длительность: " + durationSeconds);
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        String storage = STORAGE_FILESYSTEM.equalsIgnoreCase(storageMode) ? STORAGE_FILESYSTEM : STORAGE_DATABASE;
+        jdbcTemplate.update(
+                "INSERT INTO audio_uploads (id, file_name, duration_seconds, storage, received_bytes, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 0, now(), now())",
+                uploadId, fileName, durationSeconds, storage);
+        return uploadId;
+    }
+
+    /**
+     * Сколько байт загрузки уже принято - с этого смещения клиент продолжает после обрыва
+     *
+     * @return пусто, если загрузки нет (завершена, отменена или удалена по сроку)
+     */
+    public Optional<Long> getUploadOffset(String uploadId) {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT received_bytes FROM audio_uploads WHERE id = ?", Long.class, uploadId);
+        return offsets.stream().findFirst();
+    }
+
+    /**
+     * Дописать часть, начинающуюся со смещения offset
+     *
+     * Повтор уже принятой части (offset + длина <= принятого) подтверждается без записи,
+     * поэтому клиент может безопасно повторять часть, ответ на которую потерялся.
+     *
+     * @return новое подтверждённое смещение
+     * @throws IllegalStateException если offset не совпадает с принятым объёмом
+     */
+    @Transactional
+    public long appendChunk(String uploadId, long offset, byte[] chunk) {
+        if (chunk == null || chunk.length == 0) {
+            throw new IllegalArgumentException("Пустая часть загрузки");
+        }
+        if (chunk.length > maxChunkBytes) {
+            throw new IllegalArgumentException("Часть больше " + maxChunkBytes + " байт: " + chunk.length);
+        }
+
+        // Блокировка строки сериализует части одной загрузки
+        Map<String, Object> upload = lockUpload(uploadId);
+        long received = ((Number) upload.get("received_bytes")).longValue();
+        if (offset + chunk.length <= received) {
+            return received;
+        }
+        if (offset != received) {
+            throw new IllegalStateException("Загрузка " + uploadId + ": ожидалось смещение " + received +
+                    ", получено " + offset);
+        }
+
+        if (STORAGE_FILESYSTEM.equals(upload.get("storage"))) {
+            writeStaged(uploadId, offset, chunk);
+        } else {
+            jdbcTemplate.update(
+                    "INSERT INTO audio_upload_chunks (upload_id, chunk_offset, data) VALUES (?, ?, ?)",
+                    uploadId, offset, chunk);
+        }
+
+        long next = received + chunk.length;
+        jdbcTemplate.update("UPDATE audio_uploads SET received_bytes = ?, updated_at = now() WHERE id = ?",
+                next, uploadId);
+        return next;
+    }
+
+    /**
+     * Завершить загрузку и создать AudioFile
+     *
+     * @param expectedSize полный размер записи по данным клиента или null, если не проверять
+     */
+    @Transactional
+    public AudioFile commitUpload(String uploadId, Long expectedSize) {
+        Map<String, Object> upload = lockUpload(uploadId);
+        long received = ((Number) upload.get("received_bytes")).longValue();
+        if (received == 0) {
+            throw new IllegalStateException("Загрузка " + uploadId + " пуста");
+        }
+        if (expectedSize != null && expectedSize != received) {
+            throw new IllegalStateException("Загрузка " + uploadId + ": принято " + received +
+                    " байт, ожидалось " + expectedSize);
+        }
+
+        String fileName = (String) upload.get("file_name");
+        Integer duration = ((Number) upload.get("duration_seconds")).intValue();
+        LocalDateTime now = LocalDateTime.now();
+        Long audioFileId;
+
+        if (STORAGE_FILESYSTEM.equals(upload.get("storage"))) {
+            String hash = audioBlobStore.storeStaged(truncateStaged(uploadId, received));
+            AudioFile audioFile = new AudioFile();
+            audioFile.setContentHash(hash);
+            audioFile.setFileSize(received);
+            audioFile.setDurationSeconds(duration);
+            audioFile.setFileName(fileName);
+            audioFile.setCreatedAt(now);
+            audioFile.setExpiresAt(now.plusDays(retentionDays));
+            audioFileId = audioFileRepository.save(audioFile).getId();
+        } else {
+            // Части склеиваются на стороне БД
+            audioFileId = jdbcTemplate.queryForObject(
+                    "INSERT INTO audio_files (audio_data, file_size, file_name, duration_seconds, created_at, expires_at) " +
+                    "SELECT string_agg(data, ''::bytea ORDER BY chunk_offset), ?, ?, ?, ?, ? " +
+                    "FROM audio_upload_chunks WHERE upload_id = ? RETURNING id",
+                    Long.class,
+                    received, fileName, duration, Timestamp.valueOf(now), Timestamp.valueOf(now.plusDays(retentionDays)),
+                    uploadId);
+        }
+
+        // Части в audio_upload_chunks удаляются каскадом
+        jdbcTemplate.update("DELETE FROM audio_uploads WHERE id = ?", uploadId);
+        log.info("🎙️ Загрузка {} завершена: аудиофайл {} ({} байт)", uploadId, audioFileId, received);
+        return audioFileRepository.findById(audioFileId).orElseThrow();
+    }
+
+    /**
+     * Отменить загрузку и удалить принятые части
+     */
+    @Transactional
+    public void abortUpload(String uploadId) {
+        if (jdbcTemplate.update("DELETE FROM audio_uploads WHERE id = ?", uploadId) > 0) {
+            // При откате строка загрузки вернётся - файл частей должен остаться
+            TransactionHooks.afterCommit(() -> deleteStaged(uploadId));
+        }
+    }
+
+    /**
+     * Удалить загрузки, к которым не обращались дольше staleBefore
+     *
+     * @return число удалённых загрузок
+     */
+    @Transactional
+    public int purgeStaleUploads(LocalDateTime staleBefore, int limit) {
+        List<String> stale = jdbcTemplate.queryForList(
+                "SELECT id FROM audio_uploads WHERE updated_at < ? ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED",
+                String.class, Timestamp.valueOf(staleBefore), Math.max(1, limit));
+        for (String uploadId : stale) {
+            jdbcTemplate.update("DELETE FROM audio_uploads WHERE id = ?", uploadId);
+            TransactionHooks.afterCommit(() -> deleteStaged(uploadId));
+        }
+        return stale.size();
+    }
+
+    // ==================== ВНУТРЕННИЕ МЕТОДЫ ====================
+
+    private Map<String, Object> lockUpload(String uploadId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT file_name, duration_seconds, storage, received_bytes FROM audio_uploads WHERE id = ? FOR UPDATE",
+                uploadId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Загрузка не найдена: " + uploadId);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Записать часть по явному смещению: если прошлая транзакция записала файл,
+     * но откатилась, часть просто перезаписывается
+     */
+    private void writeStaged(String uploadId, long offset, byte[] chunk) {
+        try (FileChannel channel = FileChannel.open(audioBlobStore.stagingPath(uploadId),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать часть загрузки " + uploadId, e);
+        }
+    }
+
+    // Отрезать хвост от откатившихся записей - в хранилище попадает ровно подтверждённое
+    private Path truncateStaged(String uploadId, long received) {
+        try {
+            Path staged = audioBlobStore.stagingPath(uploadId);
+            try (FileChannel channel = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+                channel.truncate(received);
+                channel.force(true);
+            }
+            return staged;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось подготовить загрузку " + uploadId, e);
+        }
+    }
+
+    private void deleteStaged(String uploadId) {
+        try {
+            Files.deleteIfExists(audioBlobStore.stagingPath(uploadId));
+        } catch (IOException e) {
+            log.warn("⚠️ Не удалось удалить файл загрузки {}: {}", uploadId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dao.TaskRepository;
+import com.taskmanager.dto.TaskSummaryDTO;
+import com.taskmanager.model.AlertType;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.scheduling.HierarchicalTimer;
+import com.taskmanager.scheduling.PartitionLeaseManager;
+import com.taskmanager.scheduling.PartitionsChangedEvent;
+import com.taskmanager.scheduling.TimerEntry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DeadlineReminderService - напоминания о сроках задач (алерты DEADLINE_REMINDER)
+ *
+ * Напоминания лежат в иерархическом колесе таймеров: вставка и отмена O(1),
+ * один поток-драйвер на все задачи. В памяти держится только окно ближайших
+ * horizon-hours часов: при старте оно загружается одним запросом по индексу due_date,
+ * а по достижении конца окна догружается следующий срез. TaskService перевзводит
+ * напоминания при создании, изменении, завершении и удалении задач.
+ *
+ * Перед созданием алерта задача перечитывается: если она уже не активна или её срок
+ * изменился (например, транзакция откатилась), напоминание молча отбрасывается.
+ *
+ * На нескольких узлах каждый держит только задачи своих партиций (PartitionLeaseManager),
+ * а правки, сделанные другими узлами, подхватывает из ленты изменений по updated_at.
+ */
+@Service
+public class DeadlineReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminderService.class);
+
+    private static final List<TaskStatus> ACTIVE_STATUSES = List.of(TaskStatus.NEW, TaskStatus.IN_PROGRESS);
+
+    // Повтор догрузки окна, если БД была недоступна
+    private static final long HORIZON_RETRY_MS = 60_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private PartitionLeaseManager partitionLeaseManager;
+
+    @Value("${taskmanager.reminders.enabled:true}")
+    private boolean enabled;
+
+    // За сколько минут до срока напоминать (через запятую)
+    @Value("${taskmanager.reminders.lead-minutes:60,15}")
+    private String leadMinutesConfig;
+
+    @Value("${taskmanager.reminders.horizon-hours:24}")
+    private long horizonHours;
+
+    @Value("${taskmanager.reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${taskmanager.reminders.wheel-size:64}")
+    private int wheelSize;
+
+    // Запас ленты изменений назад: транзакция коммитится позже, чем выставляет updated_at
+    @Value("${taskmanager.reminders.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    // Взведённые напоминания по id задачи (для отмены при изменении задачи)
+    private final Map<Long, List<TimerEntry>> armed = new ConcurrentHashMap<>();
+
+    private long[] leadMinutes;
+    private volatile HierarchicalTimer timer;
+    private volatile LocalDateTime horizonEnd;
+    private volatile LocalDateTime lastSyncAt;
+    private volatile boolean running;
+    private ExecutorService fireExecutor;
+    private Thread driver;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("⏰ Напоминания о сроках отключены");
+            return;
+        }
+
+        leadMinutes = parseLeadMinutes(leadMinutesConfig);
+        fireExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-reminder-fire");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer = new HierarchicalTimer(tickMs, wheelSize, fireExecutor);
+
+        running = true;
+        driver = new Thread(this::drive, "deadline-reminder-timer");
+        driver.setDaemon(true);
+        driver.start();
+
+        lastSyncAt = LocalDateTime.now();
+        horizonEnd = lastSyncAt;
+        extendHorizon();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+        if (fireExecutor != null) {
+            fireExecutor.shutdownNow();
+        }
+    }
+
+    // ==================== СОБЫТИЯ ЗАДАЧ ====================
+
+    /**
+     * Перевзвести напоминания задачи после создания или изменения
+     */
+    public void rearm(Task task) {
+        if (task != null) {
+            rearm(task.getId(), task.getDueDate(), task.getStatus());
+        }
+    }
+
+    /**
+     * Перевзвести напоминания задачи по её проекции
+     */
+    public void rearm(TaskSummaryDTO task) {
+        rearm(task.getId(), task.getDueDate(), task.getStatus());
+    }
+
+    /**
+     * Снять старые напоминания задачи и взвести новые в пределах текущего окна
+     */
+    public void rearm(Long taskId, LocalDateTime dueDate, TaskStatus status) {
+        if (timer == null || taskId == null) {
+            return;
+        }
+        cancel(taskId);
+        // Задачу чужой партиции взведёт её владелец, увидев изменение в ленте
+        if (dueDate != null && ACTIVE_STATUSES.contains(status) && partitionLeaseManager.isAssigned(taskId)) {
+            arm(taskId, dueDate, LocalDateTime.now(), horizonEnd);
+        }
+    }
+
+    /**
+     * Снять все напоминания задачи (завершена, отменена или удалена)
+     */
+    public void cancel(Long taskId) {
+        HierarchicalTimer current = timer;
+        if (current == null || taskId == null) {
+            return;
+        }
+        List<TimerEntry> entries = armed.remove(taskId);
+        if (entries != null) {
+            for (TimerEntry entry : entries) {
+                current.cancel(entry);
+            }
+        }
+    }
+
+    public void cancel(Collection<Long> taskIds) {
+        for (Long taskId : taskIds) {
+            cancel(taskId);
+        }
+    }
+
+    /**
+     * Количество взведённых напоминаний (включая служебную запись догрузки окна)
+     */
+    public int getPendingCount() {
+        HierarchicalTimer current = timer;
+        return current != null ? current.size() : 0;
+    }
+
+    // ==================== ОКНО НАПОМИНАНИЙ ====================
+
+    /**
+     * Загрузить напоминания, срабатывающие в [horizonEnd, horizonEnd + horizon),
+     * и запланировать следующую догрузку на конец нового окна
+     */
+    private synchronized void extendHorizon() {
+        if (!running) {
+            return;
+        }
+
+        LocalDateTime from = horizonEnd;
+        LocalDateTime to = from.plusHours(Math.max(1, horizonHours));
+        // Окно сдвигается до запроса: перевзведение во время загрузки уже попадает в новое окно,
+        // а повторно загруженные напоминания отсеиваются по времени срабатывания в arm()
+        horizonEnd = to;
+
+        try {
+            int loaded = load(partitionLeaseManager.getOwnedPartitions(), from, to);
+            timer.schedule(toEpochMillis(to), this::extendHorizon);
+            log.info("⏰ Окно напоминаний до {}: задач {}, ожидает {}", to, loaded, timer.size());
+        } catch (RuntimeException e) {
+            horizonEnd = from;
+            log.error("❌ Не удалось загрузить окно напоминаний: {}", e.getMessage());
+            timer.schedule(System.currentTimeMillis() + HORIZON_RETRY_MS, this::extendHorizon);
+        }
+    }
+
+    /**
+     * Взвести напоминания задач указанных партиций, срабатывающие в [from, to)
+     *
+     * @return количество загруженных задач
+     */
+    private int load(Set<Integer> partitions, LocalDateTime from, LocalDateTime to) {
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        List<TaskSummaryDTO> tasks = taskRepository.findSummariesForReminders(ACTIVE_STATUSES,
+                from.plusMinutes(leadMinutes[leadMinutes.length - 1]), to.plusMinutes(leadMinutes[0]),
+                partitionLeaseManager.getPartitionCount(), toLongs(partitions));
+        for (TaskSummaryDTO task : tasks) {
+            arm(task.getId(), task.getDueDate(), from, to);
+        }
+        return tasks.size();
+    }
+
+    // ==================== НЕСКОЛЬКО УЗЛОВ ====================
+
+    /**
+     * Партиции перешли к этому узлу или от него: догрузить новые, снять напоминания ушедших
+     */
+    @EventListener
+    public synchronized void onPartitionsChanged(PartitionsChangedEvent event) {
+        if (timer == null) {
+            // start() загрузит окно уже с актуальным набором партиций
+            return;
+        }
+
+        if (!event.getLost().isEmpty()) {
+            for (Long taskId : List.copyOf(armed.keySet())) {
+                if (event.getLost().contains(partitionLeaseManager.partitionOf(taskId))) {
+                    cancel(taskId);
+                }
+            }
+        }
+
+        try {
+            int loaded = load(event.getGained(), LocalDateTime.now(), horizonEnd);
+            log.info("⏰ Партиции напоминаний: +{} (задач {}), -{}",
+                    event.getGained().size(), loaded, event.getLost().size());
+        } catch (RuntimeException e) {
+            // Задачи этих партиций подхватит следующая догрузка окна
+            log.error("❌ Не удалось загрузить напоминания новых партиций: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Перевзвести задачи своих партиций, изменённые с прошлой синхронизации (в том числе другими узлами)
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.reminders.sync-ms:15000}")
+    public void syncChanges() {
+        Set<Integer> partitions = partitionLeaseManager.getOwnedPartitions();
+        if (timer == null || partitions.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime until = LocalDateTime.now();
+        try {
+            List<TaskSummaryDTO> changed = taskRepository.findSummariesUpdatedBetween(
+                    lastSyncAt.minusSeconds(syncOverlapSeconds), until,
+                    partitionLeaseManager.getPartitionCount(), toLongs(partitions));
+            // Перевзведение идемпотентно, поэтому перекрытие окон ленты безопасно
+            changed.forEach(this::rearm);
+            lastSyncAt = until;
+        } catch (RuntimeException e) {
+            log.error("❌ Не удалось синхронизировать напоминания: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Взвести напоминания задачи, срабатывающие в [from, to)
+     */
+    private void arm(Long taskId, LocalDateTime dueDate, LocalDateTime from, LocalDateTime to) {
+        armed.compute(taskId, (id, entries) -> {
+            List<TimerEntry> result = entries != null ? entries : new ArrayList<>(leadMinutes.length);
+            for (long lead : leadMinutes) {
+                LocalDateTime fireAt = dueDate.minusMinutes(lead);
+                if (fireAt.isBefore(from) || !fireAt.isBefore(to)) {
+                    continue;
+                }
+                long fireAtMs = toEpochMillis(fireAt);
+                if (containsExpiration(result, fireAtMs)) {
+                    continue;
+                }
+                result.add(timer.schedule(fireAtMs, new Reminder(taskId, dueDate, lead)));
+            }
+            return result.isEmpty() ? null : result;
+        });
+    }
+
+    private void drive() {
+        while (running) {
+            try {
+                timer.advanceClock(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Ошибка таймера напоминаний: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Создать алерт, если задача всё ещё активна и срок не менялся
+     */
+    private void fire(Reminder reminder) {
+        try {
+            // Аренда могла истечь (пауза узла) - тогда партицией уже может владеть другой узел
+            if (!partitionLeaseManager.owns(reminder.taskId)) {
+                return;
+            }
+            TaskSummaryDTO task = taskRepository.findSummaryById(reminder.taskId).orElse(null);
+            if (task == null || !ACTIVE_STATUSES.contains(task.getStatus())
+                    || !reminder.dueDate.equals(task.getDueDate())) {
+                return;
+            }
+            alertService.createAlert(task.getId(), LocalDateTime.now(), AlertType.DEADLINE_REMINDER,
+                    "⏰ Через " + formatLead(reminder.leadMinutes) + " срок задачи: " + task.getTitle());
+        } catch (RuntimeException e) {
+            log.error("❌ Не удалось создать напоминание для задачи {}: {}", reminder.taskId, e.getMessage());
+        }
+    }
+
+    // ==================== ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ====================
+
+    /**
+     * Разобрать список минут ("60,15") - по убыванию, без повторов и неположительных значений
+     */
+    static long[] parseLeadMinutes(String value) {
+        long[] leads = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToLong(Long::parseLong)
+                .filter(minutes -> minutes > 0)
+                .distinct()
+                .map(minutes -> -minutes)
+                .sorted()
+                .map(minutes -> -minutes)
+                .toArray();
+        if (leads.length == 0) {
+            throw new IllegalArgumentException("taskmanager.reminders.lead-minutes не содержит ни одного значения");
+        }
+        return leads;
+    }
+
+    private static List<Long> toLongs(Set<Integer> partitions) {
+        return partitions.stream().map(Integer::longValue).toList();
+    }
+
+    private static boolean containsExpiration(List<TimerEntry> entries, long expirationMs) {
+        for (TimerEntry entry : entries) {
+            if (entry.getExpirationMs() == expirationMs) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatLead(long minutes) {
+        if (minutes % 1440 == 0) {
+            return (minutes / 1440) + " дн.";
+        }
+        if (minutes % 60 == 0) {
+            return (minutes / 60) + " ч.";
+        }
+        return minutes + " мин.";
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Одно напоминание: при срабатывании убирает себя из armed и создаёт алерт
+     */
+    private final class Reminder implements Runnable {
+        private final Long taskId;
+        private final LocalDateTime dueDate;
+        private final long leadMinutes;
+
+        private Reminder(Long taskId, LocalDateTime dueDate, long leadMinutes) {
+            this.taskId = taskId;
+            this.dueDate = dueDate;
+            this.leadMinutes = leadMinutes;
+        }
+
+        @Override
+        public void run() {
+            armed.computeIfPresent(taskId, (id, entries) -> {
+                entries.removeIf(entry -> entry.getAction() == this);
+                return entries.isEmpty() ? null : entries;
+            });
+            fire(this);
+        }
+    }
+}
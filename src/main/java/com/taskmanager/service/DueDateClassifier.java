@@ -0,0 +1,88 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.DueDateCategory;
+import com.taskmanager.model.TaskStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DueDateClassifier - классификация сроков задач по снимку времени
+ *
+ * Время и границы дней вычисляются один раз в refresh(), после чего classify()
+ * только сравнивает даты - без LocalDateTime.now() и без аллокаций на каждую строку.
+ * Правила совпадают с Task.isOverdue()/isTodayOrTomorrow()/isThisWeek().
+ */
+@Service
+public class DueDateClassifier {
+
+    private final Clock clock;
+
+    private volatile Boundaries boundaries;
+
+    public DueDateClassifier() {
+        this(Clock.systemDefaultZone());
+    }
+
+    DueDateClassifier(Clock clock) {
+        this.clock = clock;
+        refresh();
+    }
+
+    /**
+     * Сделать новый снимок времени и пересчитать границы дней
+     */
+    public void refresh() {
+        boundaries = new Boundaries(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Категория срока по текущему снимку
+     */
+    public DueDateCategory classify(LocalDateTime dueDate, TaskStatus status) {
+        if (dueDate == null || status == TaskStatus.COMPLETED) {
+            return DueDateCategory.NONE;
+        }
+
+        Boundaries b = boundaries;
+        if (dueDate.isBefore(b.now)) {
+            return DueDateCategory.OVERDUE;
+        }
+        if (!dueDate.isBefore(b.startOfToday) && dueDate.isBefore(b.startOfDayAfterTomorrow)) {
+            return DueDateCategory.TODAY_OR_TOMORROW;
+        }
+        if (!dueDate.isAfter(b.weekLater)) {
+            return DueDateCategory.THIS_WEEK;
+        }
+        return DueDateCategory.NONE;
+    }
+
+    /**
+     * Сколько миллисекунд осталось до полуночи после текущего снимка (момент, когда "сегодня" сменится)
+     */
+    public long millisUntilNextMidnight() {
+        return Math.max(0, java.time.Duration.between(LocalDateTime.now(clock), boundaries.startOfTomorrow).toMillis());
+    }
+
+    /**
+     * Неизменяемый снимок времени с заранее посчитанными границами
+     */
+    private static final class Boundaries {
+        private final LocalDateTime now;
+        private final LocalDateTime startOfToday;
+        private final LocalDateTime startOfTomorrow;
+        private final LocalDateTime startOfDayAfterTomorrow;
+        private final LocalDateTime weekLater;
+
+        private Boundaries(LocalDateTime now) {
+            LocalDate today = now.toLocalDate();
+            this.now = now;
+            this.startOfToday = today.atStartOfDay();
+            this.startOfTomorrow = today.plusDays(1).atStartOfDay();
+            this.startOfDayAfterTomorrow = today.plusDays(2).atStartOfDay();
+            this.weekLater = now.plusDays(7);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.RecurringTaskDTO;
+import com.taskmanager.dto.TaskOccurrenceDTO;
+import com.taskmanager.model.RecurrenceType;
+import com.taskmanager.model.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * RecurrenceExpansionService - ленивая развёртка повторяющихся задач в диапазон дат
+ *
+ * Будущие повторения не сохраняются в БД: они вычисляются по запросу от срока
+ * исходной задачи. Начало окна находится арифметически (без перебора прошлых
+ * повторений), элементы генерируются лениво и обрезаются лимитом на задачу.
+ * Повторения набора задач сливаются с реальными строками k-way слиянием по сроку:
+ * в памяти одновременно только по одному следующему элементу от каждого источника
+ * и результат, ограниченный общим лимитом.
+ */
+@Service
+public class RecurrenceExpansionService {
+
+    // Не больше стольких виртуальных повторений на одну задачу (защита от DAILY на годы вперёд)
+    @Value("${taskmanager.recurrence.max-occurrences-per-task:366}")
+    private int maxOccurrencesPerTask;
+
+    /**
+     * Виртуальные повторения одной задачи в полуинтервале [from, to)
+     *
+     * Сама задача (шаг 0) не включается - она уже есть в БД как реальная строка.
+     */
+    public Stream<TaskOccurrenceDTO> expand(RecurringTaskDTO task, LocalDateTime from, LocalDateTime to) {
+        RecurrenceType type = task.getRecurrenceType();
+        LocalDateTime base = task.getDueDate();
+        if (type == null || type == RecurrenceType.NONE || base == null || !from.isBefore(to)) {
+            return Stream.empty();
+        }
+
+        int interval = task.getRecurrenceInterval();
+        long firstStep = Math.max(1, type.firstStepNotBefore(base, from, interval));
+
+        return LongStream.iterate(firstStep, step -> step + 1)
+                .limit(Math.max(0, maxOccurrencesPerTask))
+                .mapToObj(step -> new TaskOccurrenceDTO(task.getId(), task.getTitle(), TaskStatus.NEW,
+                        task.getPriority(), type.shift(base, step, interval), true, step))
+                .takeWhile(occurrence -> occurrence.getDueDate().isBefore(to));
+    }
+
+    /**
+     * Реальные появления и виртуальные повторения набора задач, по сроку, не больше limit
+     *
+     * @param real реальные строки, уже отсортированные по сроку
+     */
+    public List<TaskOccurrenceDTO> expandMerged(List<TaskOccurrenceDTO> real, Collection<RecurringTaskDTO> tasks,
+                                                LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // При равных сроках - в порядке источников: реальные строки раньше виртуальных
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, tasks.size() + 1),
+                Comparator.comparing((Head head) -> head.current.getDueDate()).thenComparingInt(head -> head.source));
+        int source = 0;
+        offer(heads, real.iterator(), source++);
+        for (RecurringTaskDTO task : tasks) {
+            offer(heads, expand(task, from, to).iterator(), source++);
+        }
+
+        List<TaskOccurrenceDTO> merged = new ArrayList<>(Math.min(limit, real.size() + tasks.size()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.current);
+            if (head.rest.hasNext()) {
+                head.current = head.rest.next();
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static void offer(PriorityQueue<Head> heads, Iterator<TaskOccurrenceDTO> occurrences, int source) {
+        if (occurrences.hasNext()) {
+            heads.add(new Head(occurrences.next(), occurrences, source));
+        }
+    }
+
+    /**
+     * Очередной элемент источника и остаток источника
+     */
+    private static final class Head {
+        private TaskOccurrenceDTO current;
+        private final Iterator<TaskOccurrenceDTO> rest;
+        private final int source;
+
+        private Head(TaskOccurrenceDTO current, Iterator<TaskOccurrenceDTO> rest, int source) {
+            this.current = current;
+            this.rest = rest;
+            this.source = source;
+        }
+    }
+}
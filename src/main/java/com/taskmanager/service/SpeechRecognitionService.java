@@ -1,43 +1,505 @@
 package com.taskmanager.service;
 
+import com.taskmanager.speech.RecognitionStream;
+import com.taskmanager.speech.SpeechRecognitionException;
+import com.taskmanager.speech.SpeechRecognizer;
+import com.taskmanager.speech.SpeechSegment;
+import com.taskmanager.speech.TranscriptListener;
+import com.taskmanager.speech.VadRecognitionStream;
+import com.taskmanager.speech.VadStats;
+import com.taskmanager.speech.VoiceActivityDetector;
+import com.taskmanager.speech.WavHeader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * SpeechRecognitionService - Сервис распознавания речи
  *
- * Текущая реализация: базовая заглушка
- * Может быть интегрирована с:
- * - Google Cloud Speech API
- * - OpenAI Whisper API
- * - Vosk (локальное распознавание)
+ * Движок выбирается по speech.recognition.provider среди реализаций SpeechRecognizer
+ * (vosk - локальный vosk-server, fake - детерминированная заглушка для замеров).
+ * Распознавание идёт в пуле по числу ядер с ограниченной очередью: при переполнении
+ * заявка отклоняется сразу (RejectedExecutionException), а не копится в памяти.
+ * По таймауту задача отменяется с прерыванием потока.
+ *
+ * Потоковый режим (openRecognitionStream, recognizeStream) принимает PCM по мере записи
+ * и выдаёт промежуточные и итоговые результаты, не дожидаясь конца записи. Число
+ * одновременных сеансов ограничено speech.recognition.max-streams; каналы recognizeStream
+ * читаются отдельными потоками (не более max-streams), пул распознавания ими не занимается.
+ *
+ * Перед распознаванием работает детектор речи (speech.vad.*). Тишина в начале и конце
+ * записи отсекается. Длинные паузы делят запись на сегменты, которые распознаются параллельно.
+ * Одновременно в пуле не больше сегментов одной записи, чем потоков. В потоковом режиме
+ * длинная тишина не передаётся движку. Доля отсечённого звука доступна через getVadTrimmedRatio.
  */
 @Service
 public class SpeechRecognitionService {
 
     private static final Logger log = LoggerFactory.getLogger(SpeechRecognitionService.class);
 
+    @Autowired
+    private List<SpeechRecognizer> recognizers;
+
+    @Autowired
+    private AudioFileService audioFileService;
+
+    @Value("${speech.recognition.provider:vosk}")
+    private String provider;
+
+    @Value("${speech.recognition.language:ru_RU}")
+    private String defaultLanguage;
+
+    // 0 - по числу доступных ядер
+    @Value("${speech.recognition.workers:0}")
+    private int workers;
+
+    @Value("${speech.recognition.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${speech.recognition.timeout-ms:60000}")
+    private long timeoutMs;
+
+    // 0 - по числу потоков распознавания
+    @Value("${speech.recognition.max-streams:0}")
+    private int maxStreams;
+
+    // Размер фрагмента при чтении PCM из канала (0.1 с звука 16 кГц 16 бит)
+    @Value("${speech.recognition.stream-frame-bytes:3200}")
+    private int streamFrameBytes;
+
+    @Value("${speech.vad.enabled:true}")
+    private boolean vadEnabled;
+
+    @Value("${speech.vad.frame-ms:20}")
+    private int vadFrameMs;
+
+    // RMS кадра (в единицах 16-битного отсчёта), начиная с которого кадр - речь
+    @Value("${speech.vad.energy-threshold:500}")
+    private double vadEnergyThreshold;
+
+    // Доля переходов через ноль для тихих глухих согласных
+    @Value("${speech.vad.zero-crossing-threshold:0.3}")
+    private double vadZeroCrossingThreshold;
+
+    // Пауза, по которой запись делится на сегменты
+    @Value("${speech.vad.min-pause-ms:700}")
+    private int vadMinPauseMs;
+
+    // Более короткие всплески (щелчки, стук) отбрасываются
+    @Value("${speech.vad.min-speech-ms:200}")
+    private int vadMinSpeechMs;
+
+    @Value("${speech.vad.padding-ms:200}")
+    private int vadPaddingMs;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final VadStats vadStats = new VadStats();
+
+    private SpeechRecognizer recognizer;
+    private int threads;
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor streamReaders;
+    private ScheduledExecutorService timeouts;
+    private Semaphore streamPermits;
+    private VoiceActivityDetector vad;
+
+    @PostConstruct
+    void start() {
+        recognizer = recognizers.stream()
+                .filter(candidate -> candidate.getName().equalsIgnoreCase(provider))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Неизвестный движок распознавания: " + provider));
+
+        threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "speech-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        int streams = maxStreams > 0 ? maxStreams : threads;
+        streamPermits = new Semaphore(streams);
+        // Чтение канала большую часть времени ждёт звука - поток на сеанс, без очереди
+        AtomicInteger readerCounter = new AtomicInteger();
+        streamReaders = new ThreadPoolExecutor(0, streams, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "speech-reader-" + readerCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        timeouts = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "speech-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        vad = new VoiceActivityDetector(vadFrameMs, vadEnergyThreshold, vadZeroCrossingThreshold,
+                vadMinPauseMs, vadMinSpeechMs, vadPaddingMs);
+        log.info("🎤 Распознавание речи: движок {}, потоков {}, очередь {}", recognizer.getName(), threads, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        timeouts.shutdownNow();
+        streamReaders.shutdownNow();
+        executor.shutdownNow();
+    }
+
     /**
      * Распознать речь из аудиофайла
      *
      * @param audioFilePath путь к аудиофайлу
-     * @return распознанный текст
+     * @return распознанный текст или null при ошибке, таймауте или перегрузке
      */
     public String recognizeSpeech(String audioFilePath) {
         log.info("🎤 Распознавание речи из файла: {}", audioFilePath);
+        return recognizeSpeech(Paths.get(audioFilePath), defaultLanguage, timeoutMs);
+    }
+
+    /**
+     * Распознать речь из файла с явным языком и таймаутом
+     *
+     * Файл отображается в память, тишина отсекается детектором речи, сегменты между
+     * паузами распознаются параллельно. Вызывать не из потоков пула распознавания.
+     *
+     * @return распознанный текст или null при ошибке, таймауте, перегрузке или файле больше 2 ГБ
+     */
+    public String recognizeSpeech(Path audioFile, String language, long timeoutMillis) {
+        ByteBuffer audio;
+        try (FileChannel channel = FileChannel.open(audioFile, StandardOpenOption.READ)) {
+            // ByteBuffer адресуется int - больший файл map не отобразит
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("файл больше 2 ГБ (" + channel.size() + " байт)");
+            }
+            audio = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            log.error("❌ Не удалось прочитать {}: {}", audioFile, e.getMessage());
+            return null;
+        }
+        return recognizeAudio(audio, () -> Files.newInputStream(audioFile), language, timeoutMillis, audioFile.toString());
+    }
 
+    /**
+     * Распознать сохранённую запись (AudioFile) - из БД или файлового хранилища
+     *
+     * @return распознанный текст или null, если записи нет, при ошибке, таймауте или перегрузке
+     */
+    public String recognizeAudioFile(Long audioFileId, String language, long timeoutMillis) {
+        Optional<ByteBuffer> audio;
         try {
-            // TODO: Реализовать интеграцию с Google Cloud Speech API
-            // TODO: Или использовать OpenAI Whisper API
-            // TODO: Или использовать локальное Vosk
+            audio = audioFileService.mapAudio(audioFileId);
+        } catch (UncheckedIOException e) {
+            failed.incrementAndGet();
+            log.error("❌ Не удалось прочитать аудиофайл {}: {}", audioFileId, e.getCause().getMessage());
+            return null;
+        }
+        if (audio.isEmpty()) {
+            log.warn("⚠️ Аудиофайл {} не найден", audioFileId);
+            return null;
+        }
+        return recognizeAudio(audio.get(), () -> audioFileService.openAudioStream(audioFileId).orElseThrow(),
+                language, timeoutMillis, "аудиофайл " + audioFileId);
+    }
+
+    public String recognizeAudioFile(Long audioFileId) {
+        return recognizeAudioFile(audioFileId, defaultLanguage, timeoutMs);
+    }
+
+    /**
+     * Поставить распознавание в очередь пула с таймаутом по умолчанию (speech.recognition.timeout-ms)
+     *
+     * @throws RejectedExecutionException если очередь заполнена (обратное давление для вызывающего)
+     */
+    public Future<String> submitRecognition(Path audioFile, String language) {
+        return submitRecognition(audioFile, language, timeoutMs);
+    }
+
+    /**
+     * Поставить распознавание в очередь пула
+     *
+     * Через timeoutMillis после постановки незавершённый запрос отменяется с прерыванием
+     * движка и учитывается в getTimedOutCount. Future.cancel(true) тоже прерывает движок.
+     *
+     * @throws RejectedExecutionException если очередь заполнена (обратное давление для вызывающего)
+     */
+    public Future<String> submitRecognition(Path audioFile, String language, long timeoutMillis) {
+        Future<String> future = submit(() -> {
+            try (InputStream in = Files.newInputStream(audioFile)) {
+                return recognize(in, language);
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                throw new UncheckedIOException(e);
+            }
+        });
+        // cancel() у завершённой задачи вернёт false - считаются только реально снятые запросы
+        timeouts.schedule(() -> {
+            if (future.cancel(true)) {
+                timedOut.incrementAndGet();
+                log.warn("⚠️ Распознавание {} не уложилось в {} мс", audioFile.getFileName(), timeoutMillis);
+            }
+        }, Math.max(0, timeoutMillis), TimeUnit.MILLISECONDS);
+        return future;
+    }
 
-            log.warn("⚠️ Распознавание речи пока не реализовано");
+    /**
+     * Открыть сеанс потокового распознавания PCM 16 бит моно
+     *
+     * Вызывающий сам передаёт звук (sendAudio) и завершает сеанс (finish или cancel).
+     * Результаты приходят в listener из потоков движка - для UI нужен Platform.runLater.
+     *
+     * @throws RejectedExecutionException если открыто максимальное число сеансов
+     */
+    public RecognitionStream openRecognitionStream(int sampleRate, String language, TranscriptListener listener)
+            throws SpeechRecognitionException, InterruptedException {
+        if (!streamPermits.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Открыто максимальное число сеансов распознавания");
+        }
+        try {
+            RecognitionStream stream = recognizer.openStream(sampleRate, language, listener);
+            if (vadEnabled) {
+                stream = new VadRecognitionStream(stream, vad, vadStats, sampleRate);
+            }
+            stream.result().whenComplete((text, error) -> {
+                streamPermits.release();
+                if (error == null) {
+                    completed.incrementAndGet();
+                } else if (!(error instanceof CancellationException)) {
+                    failed.incrementAndGet();
+                }
+            });
+            return stream;
+        } catch (SpeechRecognitionException | InterruptedException | RuntimeException e) {
+            streamPermits.release();
+            failed.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Распознавать PCM из канала по мере поступления (например, из записи с микрофона)
+     *
+     * Канал читается до конца потока отдельным потоком чтения (запись с микрофона длится
+     * минутами и не должна держать поток пула распознавания); канал должен быть блокирующим.
+     * Промежуточные результаты приходят в listener сразу, Future завершается полным текстом.
+     * Future.cancel(true) прерывает чтение и сеанс.
+     *
+     * @throws RejectedExecutionException если открыто максимальное число сеансов
+     */
+    public Future<String> recognizeStream(ReadableByteChannel pcm, int sampleRate, String language,
+                                          TranscriptListener listener) {
+        return submit(streamReaders, () -> {
+            RecognitionStream stream = openRecognitionStream(sampleRate, language, listener);
+            try {
+                ByteBuffer frame = ByteBuffer.allocate(Math.max(2, streamFrameBytes));
+                while (pcm.read(frame) != -1) {
+                    if (frame.position() > 0) {
+                        frame.flip();
+                        stream.sendAudio(frame);
+                        frame.clear();
+                    }
+                }
+                stream.finish();
+                return stream.result().get();
+            } catch (Exception e) {
+                stream.cancel();
+                throw e;
+            }
+        });
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    // Доля звука, отсечённая детектором речи (0..1)
+    public double getVadTrimmedRatio() {
+        return vadStats.getTrimmedRatio();
+    }
+
+    /**
+     * Общий путь распознавания записи целиком: детектор речи, параллельные сегменты, таймаут
+     *
+     * @param source поток исходной записи - для форматов, которые детектор не поддерживает
+     */
+    private String recognizeAudio(ByteBuffer audio, Callable<InputStream> source, String language,
+                                  long timeoutMillis, String description) {
+        ByteBuffer data = audio.duplicate();
+        WavHeader header;
+        try {
+            header = WavHeader.read(data);
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            log.error("❌ Некорректная запись {}: {}", description, e.getMessage());
             return null;
+        }
+        if (header.getDataLength() >= 0 && header.getDataLength() < data.remaining()) {
+            data.limit(data.position() + (int) header.getDataLength());
+        }
 
+        List<Callable<String>> tasks = new ArrayList<>();
+        if (vadEnabled && header.getChannels() == 1 && header.getBitsPerSample() == 16) {
+            List<SpeechSegment> segments = vad.detect(data, header.getSampleRate());
+            long kept = segments.stream().mapToLong(SpeechSegment::getLength).sum();
+            vadStats.record(data.remaining(), kept);
+            log.debug("🎤 {}: сегментов речи {}, отсечено {}%", description, segments.size(),
+                    data.remaining() == 0 ? 0 : 100 - kept * 100 / data.remaining());
+            for (SpeechSegment segment : segments) {
+                ByteBuffer pcm = data.slice(data.position() + segment.getStart(), segment.getLength());
+                tasks.add(() -> recognizePcm(pcm, header.getSampleRate(), language));
+            }
+        } else {
+            tasks.add(() -> {
+                try (InputStream in = source.call()) {
+                    return recognizer.recognize(in, language);
+                }
+            });
+        }
+        if (tasks.isEmpty()) {
+            completed.incrementAndGet();
+            return "";
+        }
+
+        // Скользящее окно: запись с сотней пауз не занимает всю очередь пула и не получает отказ
+        // из-за собственных сегментов - следующий ставится, когда забран результат предыдущего
+        int window = Math.min(tasks.size(), threads);
+        List<Future<String>> futures = new ArrayList<>(tasks.size());
+        try {
+            while (futures.size() < window) {
+                futures.add(submit(tasks.get(futures.size())));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < tasks.size(); i++) {
+                String part = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (futures.size() < tasks.size()) {
+                    futures.add(submit(tasks.get(futures.size())));
+                }
+                if (part != null && !part.isBlank()) {
+                    if (text.length() > 0) {
+                        text.append(' ');
+                    }
+                    text.append(part.trim());
+                }
+            }
+            completed.incrementAndGet();
+            return text.toString();
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Очередь распознавания переполнена, запрос отклонён: {}", description);
+        } catch (TimeoutException e) {
+            timedOut.incrementAndGet();
+            log.warn("⚠️ Распознавание {} не уложилось в {} мс", description, timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            failed.incrementAndGet();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("❌ Ошибка при распознавании речи: {}", cause.getMessage(), cause);
+        }
+        futures.forEach(future -> future.cancel(true));
+        return null;
+    }
+
+    // Распознать сегмент PCM 16 бит моно через потоковый сеанс движка
+    private String recognizePcm(ByteBuffer pcm, int sampleRate, String language) throws Exception {
+        RecognitionStream stream = recognizer.openStream(sampleRate, language, TranscriptListener.NONE);
+        try {
+            int frameBytes = Math.max(2, streamFrameBytes);
+            for (int offset = 0; offset < pcm.limit(); offset += frameBytes) {
+                stream.sendAudio(pcm.slice(offset, Math.min(frameBytes, pcm.limit() - offset)));
+            }
+            stream.finish();
+            return stream.result().get();
         } catch (Exception e) {
-            log.error("❌ Ошибка при распознавании речи: {}", e.getMessage(), e);
-            return null;
+            stream.cancel();
+            throw e;
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        return submit(executor, task);
+    }
+
+    private <T> Future<T> submit(ThreadPoolExecutor pool, Callable<T> task) {
+        try {
+            return pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private String recognize(InputStream audio, String language) throws SpeechRecognitionException, InterruptedException {
+        long startedAt = System.nanoTime();
+        try {
+            String text = recognizer.recognize(audio, language);
+            completed.incrementAndGet();
+            log.debug("🎤 Распознано за {} мс", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return text;
+        } catch (SpeechRecognitionException e) {
+            failed.incrementAndGet();
+            throw e;
         }
     }
 
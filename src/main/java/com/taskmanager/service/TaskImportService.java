@@ -0,0 +1,302 @@
+package com.taskmanager.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.taskmanager.dto.TaskCreateRequest;
+import com.taskmanager.model.RecurrenceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TaskImportService - потоковый импорт задач из JSON и CSV
+ *
+ * Файл читается последовательно, задачи копятся порциями по chunk-size и сохраняются
+ * через TaskService.createTasks - каждая порция в своей транзакции. Память ограничена
+ * размером порции, а уже закоммиченные порции не откатываются при ошибке в середине файла.
+ *
+ * Формат записи (JSON-объект или CSV-строка с заголовком):
+ * title, description, priority, dueDate (ISO, 2026-01-03T14:30), recurrenceType, recurrenceInterval
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    private static final String[] CSV_COLUMNS =
+            {"title", "description", "priority", "dueDate", "recurrenceType", "recurrenceInterval"};
+
+    @Autowired
+    private TaskService taskService;
+
+    @Value("${taskmanager.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Импорт JSON-массива объектов задач
+     *
+     * @return количество импортированных задач
+     */
+    public long importJson(InputStream input) throws IOException {
+        ChunkWriter writer = new ChunkWriter();
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                writer.add(readJsonTask(reader));
+            }
+            reader.endArray();
+        }
+
+        return writer.finish();
+    }
+
+    /**
+     * Импорт CSV (RFC 4180: разделитель - запятая, поля в кавычках могут содержать переводы строк).
+     * Первая строка - заголовок с именами колонок из CSV_COLUMNS в любом порядке.
+     *
+     * @return количество импортированных задач
+     */
+    public long importCsv(Reader input) throws IOException {
+        ChunkWriter writer = new ChunkWriter();
+        CsvRecordReader reader = new CsvRecordReader(input);
+
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return 0;
+        }
+        int[] columnIndex = mapCsvHeader(header);
+
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue; // пустая строка
+            }
+            try {
+                writer.add(toTaskRequest(
+                        field(record, columnIndex[0]),
+                        field(record, columnIndex[1]),
+                        field(record, columnIndex[2]),
+                        field(record, columnIndex[3]),
+                        field(record, columnIndex[4]),
+                        field(record, columnIndex[5])));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("CSV, запись " + reader.getRecordNumber() + ": " + e.getMessage(), e);
+            }
+        }
+
+        return writer.finish();
+    }
+
+    // ==================== JSON ====================
+
+    private TaskCreateRequest readJsonTask(JsonReader reader) throws IOException {
+        String title = null, description = null, priority = null, dueDate = null, recurrenceType = null, interval = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "title" -> title = reader.nextString();
+                case "description" -> description = reader.nextString();
+                case "priority" -> priority = reader.nextString();
+                case "dueDate" -> dueDate = reader.nextString();
+                case "recurrenceType" -> recurrenceType = reader.nextString();
+                case "recurrenceInterval" -> interval = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        try {
+            return toTaskRequest(title, description, priority, dueDate, recurrenceType, interval);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("JSON, " + reader.getPath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private int[] mapCsvHeader(List<String> header) {
+        int[] index = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            index[i] = header.indexOf(CSV_COLUMNS[i]);
+        }
+        if (index[0] < 0 && index[1] < 0) {
+            throw new IllegalArgumentException("CSV: нужна колонка title или description, заголовок: " + header);
+        }
+        return index;
+    }
+
+    private static String field(List<String> record, int index) {
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    // ==================== ОБЩЕЕ ====================
+
+    private TaskCreateRequest toTaskRequest(String title, String description, String priority,
+                                            String dueDate, String recurrenceType, String interval) {
+        TaskCreateRequest request = new TaskCreateRequest();
+        request.setTitle(isBlank(title) ? null : title.trim());
+        request.setDescription(description);
+
+        try {
+            request.setPriority(isBlank(priority) ? null : Math.min(10, Math.max(0, Integer.parseInt(priority.trim()))));
+            request.setRecurrenceInterval(isBlank(interval) ? null : Integer.parseInt(interval.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("неправильное число: " + e.getMessage(), e);
+        }
+
+        try {
+            request.setDueDate(isBlank(dueDate) ? null : LocalDateTime.parse(dueDate.trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("неправильная дата '" + dueDate + "', ожидается ISO 2026-01-03T14:30", e);
+        }
+
+        request.setRecurrenceType(isBlank(recurrenceType) ? RecurrenceType.NONE : RecurrenceType.valueOf(recurrenceType.trim()));
+
+        if (request.getTitle() == null) {
+            // Как в UI: название берётся из первой строки описания. buildTask снова ставит
+            // название первой строкой, поэтому из описания она убирается - иначе задвоится
+            if (isBlank(description)) {
+                throw new IllegalArgumentException("пустые title и description");
+            }
+            String text = description.strip();
+            int newline = text.indexOf('\n');
+            request.setTitle((newline < 0 ? text : text.substring(0, newline)).trim());
+            request.setDescription(newline < 0 ? null : text.substring(newline + 1));
+        }
+        return request;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Накопитель порций: сохраняет задачи пачками по chunkSize
+     */
+    private class ChunkWriter {
+        private final List<TaskCreateRequest> chunk = new ArrayList<>();
+        private long imported;
+
+        void add(TaskCreateRequest request) {
+            chunk.add(request);
+            if (chunk.size() >= Math.max(1, chunkSize)) {
+                flush();
+            }
+        }
+
+        long finish() {
+            flush();
+            log.info("📥 Импорт задач завершён: {} шт.", imported);
+            return imported;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            taskService.createTasks(chunk);
+            imported += chunk.size();
+            chunk.clear();
+            log.debug("📥 Импортировано задач: {}", imported);
+        }
+    }
+
+    /**
+     * Минимальный потоковый разбор CSV по RFC 4180
+     */
+    private static class CsvRecordReader {
+        private final Reader reader;
+        private long recordNumber;
+        private int pushedBack = -2;
+
+        CsvRecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        long getRecordNumber() {
+            return recordNumber;
+        }
+
+        /**
+         * Прочитать следующую запись или null в конце файла
+         */
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("CSV: незакрытая кавычка в записи " + (recordNumber + 1));
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+
+            fields.add(field.toString());
+            recordNumber++;
+            return fields;
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
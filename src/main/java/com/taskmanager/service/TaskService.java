@@ -1,76 +1,290 @@
 package com.taskmanager.service;
 
+import com.taskmanager.cache.BoundedCache;
+import com.taskmanager.dto.CacheStatsDTO;
+import com.taskmanager.dto.TaskCreateRequest;
+import com.taskmanager.dto.TaskCursor;
+import com.taskmanager.dto.TaskOccurrenceDTO;
+import com.taskmanager.dto.TaskPage;
+import com.taskmanager.dto.TaskSearchHitDTO;
+import com.taskmanager.dto.TaskSummaryDTO;
 import com.taskmanager.model.Task;
 import com.taskmanager.model.TaskStatus;
 import com.taskmanager.model.RecurrenceType;
 import com.taskmanager.dao.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Service
 @Transactional
 public class TaskService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Максимум id в одном IN (...) массовых операций
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Autowired
+    private DeadlineReminderService deadlineReminderService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Сколько всего появлений (реальных + виртуальных) возвращает запрос по диапазону
+    @Value("${taskmanager.recurrence.max-occurrences-total:10000}")
+    private int maxOccurrencesTotal;
+
+    // Размер JDBC-батча Hibernate: после каждого батча контекст сбрасывается, чтобы не копить сущности
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}")
+    private int jdbcBatchSize;
+
+    @Value("${taskmanager.cache.tasks.max-size:10000}")
+    private int taskCacheMaxSize;
+
+    @Value("${taskmanager.cache.status-lists.max-size:16}")
+    private int statusCacheMaxSize;
+
+    @Value("${taskmanager.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    // Read-through кэши; инвалидируются после коммита любой записи через этот сервис
+    private BoundedCache<Long, Task> taskByIdCache;
+    private BoundedCache<TaskStatus, List<Task>> tasksByStatusCache;
+
+    @PostConstruct
+    void initCaches() {
+        taskByIdCache = new BoundedCache<>("tasksById", taskCacheMaxSize, cacheTtlSeconds * 1000);
+        tasksByStatusCache = new BoundedCache<>("tasksByStatus", statusCacheMaxSize, cacheTtlSeconds * 1000);
+    }
+
     /**
-     * Получить все задачи
+     * Получить все задачи (полный скан таблицы - для UI используйте getTasksPage)
      */
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
     }
 
     /**
-     * Получить задачу по ID
+     * Получить задачу по ID (через кэш; SUPPORTS - попадание в кэш не открывает транзакцию)
+     *
+     * Возвращается копия: её можно менять и передавать в updateTask, кэш при этом не меняется
+     * (в том числе если сохранение не удалось).
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Task getTaskById(Long id) {
-        return taskRepository.findById(id).orElse(null);
+        Task cached = taskByIdCache.get(id, key -> taskRepository.findById(key).orElse(null));
+        return cached != null ? cached.copy() : null;
     }
 
     /**
-     * Получить задачи по статусу
+     * Получить задачи по статусу (через кэш, список неизменяемый)
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Task> getTasksByStatus(TaskStatus status) {
-        return taskRepository.findByStatus(status);
+        return tasksByStatusCache.get(status, key -> List.copyOf(taskRepository.findByStatus(key)));
+    }
+
+    /**
+     * Статистика кэшей задач (для подбора размеров)
+     */
+    public List<CacheStatsDTO> getCacheStats() {
+        return List.of(taskByIdCache.getStats(), tasksByStatusCache.getStats());
+    }
+
+    /**
+     * Получить страницу задач с указанными статусами (keyset по priority DESC, id ASC)
+     *
+     * Все статусы выбираются одним запросом (status IN ...), строки - облегчённые проекции без description.
+     *
+     * @param after    курсор предыдущей страницы или null для первой страницы
+     * @param pageSize размер страницы (ограничен MAX_PAGE_SIZE)
+     */
+    @Transactional(readOnly = true)
+    public TaskPage<TaskSummaryDTO> getTasksPage(Collection<TaskStatus> statuses, TaskCursor after, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        // Берём на одну строку больше, чтобы узнать, есть ли следующая страница, без COUNT(*)
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<TaskSummaryDTO> rows = after == null
+                ? taskRepository.findSummariesByStatusIn(statuses, limit)
+                : taskRepository.findSummariesByStatusInAfter(statuses, after.getPriority(), after.getId(), limit);
+
+        if (rows.size() <= size) {
+            return new TaskPage<>(rows, null);
+        }
+
+        List<TaskSummaryDTO> items = new ArrayList<>(rows.subList(0, size));
+        TaskSummaryDTO last = items.get(size - 1);
+        return new TaskPage<>(items, new TaskCursor(last.getPriority(), last.getId()));
+    }
+
+    /**
+     * Найти задачи, название которых начинается с prefix (отсортированы по названию)
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDTO> getTasksByTitlePrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        String pattern = escapeLike(prefix.trim()) + "%";
+        return taskRepository.findSummariesByTitleLike(pattern, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * Полнотекстовый поиск по названию и описанию (русская и английская морфология)
+     *
+     * Результаты упорядочены по релевантности; следующая страница - после последнего результата.
+     *
+     * @param after последний результат предыдущей страницы или null
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSearchHitDTO> searchTasks(String query, TaskSearchHitDTO after, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Object[]> rows = after == null
+                ? taskRepository.searchFirstPage(query.trim(), size)
+                : taskRepository.searchPageAfter(query.trim(), after.getRank(), after.getTask().getId(), size);
+
+        List<TaskSearchHitDTO> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            TaskSummaryDTO summary = new TaskSummaryDTO(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    TaskStatus.valueOf((String) row[2]),
+                    ((Number) row[3]).intValue(),
+                    toLocalDateTime(row[4]));
+            hits.add(new TaskSearchHitDTO(summary, ((Number) row[5]).floatValue()));
+        }
+        return hits;
+    }
+
+    /**
+     * Значение TIMESTAMP из нативного запроса (драйвер может вернуть Timestamp или LocalDateTime)
+     */
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        throw new IllegalStateException("Неожиданный тип даты: " + value.getClass());
+    }
+
+    /**
+     * Экранировать спецсимволы LIKE (escape-символ - обратный слэш)
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
-     * Создать новую задачу
+     * Создать новую задачу (название сохраняется в колонку title из первой строки)
      */
     public Task createTask(String title, String description, Integer priority, LocalDateTime dueDate, RecurrenceType recurrenceType) {
-        // Объединяем title и description в одно поле
-        String fullDescription = (title != null ? title : "Без названия") + "\n" + (description != null ? description : "");
+        Task task = buildTask(title, description, priority, dueDate, recurrenceType);
+        Task saved = taskRepository.save(task);
+        invalidateCaches(saved.getId());
+        taskStatisticsService.onTaskCreated(saved);
+        deadlineReminderService.rearm(saved);
+        return saved;
+    }
 
-        Task task = new Task(fullDescription, priority, dueDate, recurrenceType);
-        return taskRepository.save(task);
+    /**
+     * Создать много задач за одну транзакцию с JDBC-батчингом вставок
+     *
+     * id берутся пулом из task_id_seq, поэтому Hibernate группирует INSERT-ы по jdbc.batch_size.
+     * Для очень больших объёмов вызывайте порциями (см. TaskImportService) - каждый вызов коммитится отдельно.
+     *
+     * @return сохранённые (отсоединённые) задачи
+     */
+    public List<Task> createTasks(List<TaskCreateRequest> requests) {
+        List<Task> saved = new ArrayList<>(requests.size());
+        for (TaskCreateRequest request : requests) {
+            Task task = buildTask(request.getTitle(), request.getDescription(), request.getPriority(),
+                    request.getDueDate(), request.getRecurrenceType());
+            task.setRecurrenceInterval(request.getRecurrenceInterval());
+            saved.add(task);
+        }
+        persistInBatches(saved);
+
+        TransactionHooks.afterCommit(tasksByStatusCache::invalidateAll);
+        for (Task task : saved) {
+            taskStatisticsService.onTaskCreated(task);
+            deadlineReminderService.rearm(task);
+        }
+        return saved;
     }
 
     /**
      * Сохранить задачу
      */
     public Task saveTask(Task task) {
+        boolean isNew = task.getId() == null;
+        TaskStatus oldStatus = task.getPersistedStatus();
+        LocalDateTime oldDueDate = task.getPersistedDueDate();
+
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        invalidateCaches(saved.getId());
+
+        if (isNew) {
+            taskStatisticsService.onTaskCreated(saved);
+        } else {
+            taskStatisticsService.onTaskUpdated(oldStatus, oldDueDate, saved);
+        }
+        deadlineReminderService.rearm(saved);
+        return saved;
     }
 
     /**
      * Обновить задачу (по ID и отдельным параметрам)
      */
     public Task updateTask(Long id, String description, Integer priority, LocalDateTime dueDate, TaskStatus status, RecurrenceType recurrenceType) {
-        Task task = getTaskById(id);
+        // Мимо кэша: изменяемая сущность не должна быть общей с читателями кэша
+        Task task = taskRepository.findById(id).orElse(null);
         if (task != null) {
+            TaskStatus oldStatus = task.getPersistedStatus();
+            LocalDateTime oldDueDate = task.getPersistedDueDate();
+
             task.setDescription(description);
             task.setPriority(priority);
             task.setDueDate(dueDate);
             task.setStatus(status);
             task.setRecurrenceType(recurrenceType);
             task.setUpdatedAt(LocalDateTime.now());
-            return taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            invalidateCaches(id);
+            taskStatisticsService.onTaskUpdated(oldStatus, oldDueDate, saved);
+            deadlineReminderService.rearm(saved);
+            return saved;
         }
         return null;
     }
@@ -80,8 +294,16 @@ public class TaskService {
      */
     public Task updateTask(Task task) {
         if (task != null && task.getId() != null) {
+            // Для отсоединённой задачи это значения на момент её загрузки
+            TaskStatus oldStatus = task.getPersistedStatus();
+            LocalDateTime oldDueDate = task.getPersistedDueDate();
+
             task.setUpdatedAt(LocalDateTime.now());
-            return taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            invalidateCaches(saved.getId());
+            taskStatisticsService.onTaskUpdated(oldStatus, oldDueDate, saved);
+            deadlineReminderService.rearm(saved);
+            return saved;
         }
         return null;
     }
@@ -90,14 +312,19 @@ public class TaskService {
      * Удалить задачу
      */
     public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            taskRepository.delete(task);
+            taskStatisticsService.onTaskDeleted(task);
+        });
+        invalidateCaches(id);
+        deadlineReminderService.cancel(id);
     }
 
     /**
      * Завершить задачу
      */
     public Task completeTask(Long id) {
-        Task task = getTaskById(id);
+        Task task = taskRepository.findById(id).orElse(null);
         if (task != null) {
             task.setStatus(TaskStatus.COMPLETED);
             return saveTask(task);
@@ -105,6 +332,137 @@ public class TaskService {
         return null;
     }
 
+    // ==================== МАССОВЫЕ ОПЕРАЦИИ ====================
+
+    /**
+     * Завершить задачи одним UPDATE на пачку id
+     *
+     * Для повторяющихся задач, которые ещё не были завершены, следующие копии
+     * создаются одной батч-вставкой.
+     *
+     * @return количество задач, у которых изменился статус
+     */
+    public int completeTasks(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        List<Task> nextOccurrences = new ArrayList<>();
+
+        for (List<Long> chunk : partition(ids)) {
+            // Читаем до UPDATE с блокировкой строк: после него уже не отличить "только что завершённые"
+            // от завершённых ранее, а без блокировки параллельное завершение создало бы вторую копию
+            for (Task task : taskRepository.lockRecurringNotInStatus(chunk, RecurrenceType.NONE, TaskStatus.COMPLETED)) {
+                nextOccurrences.add(buildNextRecurrence(task));
+            }
+            updated += taskRepository.completeByIdIn(chunk, TaskStatus.COMPLETED, now);
+        }
+
+        persistInBatches(nextOccurrences);
+        deadlineReminderService.cancel(ids);
+        for (Task next : nextOccurrences) {
+            deadlineReminderService.rearm(next);
+        }
+        afterBulkChange(ids);
+        return updated;
+    }
+
+    /**
+     * Сменить статус у набора задач (COMPLETED обрабатывается как completeTasks)
+     *
+     * @return количество задач, у которых изменился статус
+     */
+    public int changeStatus(Collection<Long> ids, TaskStatus status) {
+        if (status == TaskStatus.COMPLETED) {
+            return completeTasks(ids);
+        }
+        if (ids == null || ids.isEmpty() || status == null) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (List<Long> chunk : partition(ids)) {
+            updated += taskRepository.updateStatusByIdIn(chunk, status, now);
+            // Срок не меняется, поэтому активным задачам достаточно проекции; остальным - снять напоминания
+            if (status == TaskStatus.NEW || status == TaskStatus.IN_PROGRESS) {
+                taskRepository.findSummariesByIdIn(chunk).forEach(deadlineReminderService::rearm);
+            } else {
+                deadlineReminderService.cancel(chunk);
+            }
+        }
+
+        afterBulkChange(ids);
+        return updated;
+    }
+
+    /**
+     * Удалить набор задач одним DELETE на пачку id
+     *
+     * @return количество удалённых задач
+     */
+    public int deleteTasks(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = 0;
+        for (List<Long> chunk : partition(ids)) {
+            deleted += taskRepository.deleteByIdIn(chunk);
+        }
+        deadlineReminderService.cancel(ids);
+
+        afterBulkChange(ids);
+        return deleted;
+    }
+
+    /**
+     * Отменить все активные (NEW, IN_PROGRESS) задачи со сроком раньше before
+     *
+     * Напоминания этих задач не снимаются поштучно: при срабатывании статус перечитывается
+     * и напоминание для отменённой задачи отбрасывается.
+     *
+     * @return количество отменённых задач
+     */
+    public int cancelOverdue(LocalDateTime before) {
+        int cancelled = taskRepository.cancelOverdue(before,
+                List.of(TaskStatus.NEW, TaskStatus.IN_PROGRESS), TaskStatus.CANCELLED, LocalDateTime.now());
+
+        if (cancelled > 0) {
+            TransactionHooks.afterCommit(taskByIdCache::invalidateAll);
+            afterBulkChange(List.of());
+        }
+        return cancelled;
+    }
+
+    // ==================== ПОВТОРЕНИЯ ====================
+
+    /**
+     * Задачи со сроком в [start, end) вместе с виртуальными будущими повторениями
+     * повторяющихся задач (виртуальные не сохраняются в БД)
+     *
+     * @return появления, отсортированные по сроку, не больше maxOccurrencesTotal
+     */
+    @Transactional(readOnly = true)
+    public List<TaskOccurrenceDTO> getOccurrencesBetween(LocalDateTime start, LocalDateTime end) {
+        int limit = Math.max(0, maxOccurrencesTotal);
+        if (limit == 0) {
+            return List.of();
+        }
+        // Реальных строк больше лимита в результат всё равно не попадёт
+        List<TaskOccurrenceDTO> real = taskRepository.findSummariesByDueDateBetween(start, end, PageRequest.of(0, limit))
+                .stream()
+                .map(TaskOccurrenceDTO::real)
+                .toList();
+
+        return recurrenceExpansionService.expandMerged(real,
+                taskRepository.findRecurringBefore(RecurrenceType.NONE,
+                        List.of(TaskStatus.NEW, TaskStatus.IN_PROGRESS), end),
+                start, end, limit);
+    }
+
     /**
      * Вычислить следующую дату рекурсии
      */
@@ -114,13 +472,7 @@ public class TaskService {
             currentDate = LocalDateTime.now();
         }
 
-        return switch (task.getRecurrenceType()) {
-            case DAILY -> currentDate.plusDays(1);
-            case WEEKLY -> currentDate.plusWeeks(1);
-            case MONTHLY -> currentDate.plusMonths(1);
-            case CUSTOM -> currentDate.plusDays(task.getRecurrenceInterval() > 0 ? task.getRecurrenceInterval() : 7);
-            default -> currentDate.plusDays(1);
-        };
+        return task.getRecurrenceType().shift(currentDate, 1, task.getRecurrenceInterval());
     }
 
     /**
@@ -130,12 +482,115 @@ public class TaskService {
         if (!completedTask.hasRecurrence()) {
             return null;
         }
+        // Копию уже создал другой поток, узел или RecurrenceRolloverJob
+        if (completedTask.getId() != null && taskRepository.markRolledOver(completedTask.getId()) == 0) {
+            return null;
+        }
+
+        Task saved = taskRepository.save(buildNextRecurrence(completedTask));
+        invalidateCaches(saved.getId());
+        taskStatisticsService.onTaskCreated(saved);
+        deadlineReminderService.rearm(saved);
+        return saved;
+    }
+
+    /**
+     * Создать следующие копии для пачки завершённых повторяющихся задач, у которых их ещё нет
+     *
+     * Пачка забирается FOR UPDATE SKIP LOCKED и остаётся заблокированной до коммита,
+     * поэтому параллельные вызовы на разных узлах обрабатывают разные задачи.
+     *
+     * @return количество обработанных задач (меньше limit - больше ничего не осталось)
+     */
+    public int rollOverCompletedRecurrences(int limit) {
+        List<Long> ids = taskRepository.claimPendingRollovers(Math.max(1, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Task> nextOccurrences = new ArrayList<>(ids.size());
+        for (Task task : taskRepository.findAllById(ids)) {
+            nextOccurrences.add(buildNextRecurrence(task));
+        }
+        persistInBatches(nextOccurrences);
+        taskRepository.markRolledOverByIdIn(ids);
 
+        for (Task next : nextOccurrences) {
+            deadlineReminderService.rearm(next);
+        }
+        afterBulkChange(List.of());
+        return ids.size();
+    }
+
+    /**
+     * Собрать следующую копию повторяющейся задачи (без сохранения)
+     */
+    private Task buildNextRecurrence(Task completedTask) {
         LocalDateTime nextDate = getNextRecurrenceDate(completedTask);
         Task nextTask = new Task(completedTask.getDescription(), completedTask.getPriority(),
                 nextDate, completedTask.getRecurrenceType());
         nextTask.setRecurrenceInterval(completedTask.getRecurrenceInterval());
         nextTask.setStatus(TaskStatus.NEW);
-        return taskRepository.save(nextTask);
+        return nextTask;
+    }
+
+    /**
+     * Вставить новые задачи JDBC-батчами, сбрасывая контекст после каждого батча
+     */
+    private void persistInBatches(List<Task> tasks) {
+        int batchSize = Math.max(1, jdbcBatchSize);
+        for (int i = 0; i < tasks.size(); i++) {
+            entityManager.persist(tasks.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * После массовой операции: сбросить кэши затронутых задач и пересчитать статистику при следующем запросе
+     */
+    private void afterBulkChange(Collection<Long> ids) {
+        List<Long> changed = new ArrayList<>(ids);
+        TransactionHooks.afterCommit(() -> {
+            for (Long id : changed) {
+                taskByIdCache.invalidate(id);
+            }
+            tasksByStatusCache.invalidateAll();
+        });
+        taskStatisticsService.invalidate();
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + BULK_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Собрать новую задачу: title и description объединяются в одно поле
+     */
+    private Task buildTask(String title, String description, Integer priority, LocalDateTime dueDate, RecurrenceType recurrenceType) {
+        String fullDescription = (title != null ? title : "Без названия") + "\n" + (description != null ? description : "");
+        return new Task(fullDescription, priority, dueDate, recurrenceType);
+    }
+
+    /**
+     * Сбросить кэш задачи и кэш списков по статусам (любая запись может изменить состав списков)
+     * после коммита: до него читатель закэшировал бы старую строку заново
+     */
+    private void invalidateCaches(Long taskId) {
+        TransactionHooks.afterCommit(() -> {
+            if (taskId != null) {
+                taskByIdCache.invalidate(taskId);
+            }
+            tasksByStatusCache.invalidateAll();
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dao.TaskRepository;
+import com.taskmanager.dto.TaskStatisticsDTO;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TaskStatisticsService - статистика по задачам
+ *
+ * Первый запрос считает всё одним GROUP BY, дальше счётчики обновляются
+ * инкрементально из TaskService, так что getStatistics() не ходит в БД. Изменения
+ * счётчиков применяются после коммита (TransactionHooks): откатившаяся запись их не трогает.
+ * Просрочка зависит от текущего времени, поэтому её счётчик периодически
+ * сверяется отдельным COUNT по индексу due_date.
+ */
+@Service
+public class TaskStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatisticsService.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Как долго доверять счётчику просроченных задач без пересчёта
+    @Value("${taskmanager.statistics.overdue-refresh-seconds:60}")
+    private long overdueRefreshSeconds;
+
+    private final AtomicLongArray statusCounts = new AtomicLongArray(TaskStatus.values().length);
+    private final AtomicLong overdueCount = new AtomicLong();
+
+    private volatile boolean initialized;
+    private volatile LocalDateTime overdueComputedAt;
+
+    /**
+     * Получить статистику (O(1) после первой загрузки)
+     */
+    public TaskStatisticsDTO getStatistics() {
+        if (!initialized) {
+            refresh();
+        } else if (overdueComputedAt.plusSeconds(overdueRefreshSeconds).isBefore(LocalDateTime.now())) {
+            refreshOverdue();
+        }
+
+        TaskStatisticsDTO stats = new TaskStatisticsDTO();
+        int newTasks = (int) statusCounts.get(TaskStatus.NEW.ordinal());
+        int inProgressTasks = (int) statusCounts.get(TaskStatus.IN_PROGRESS.ordinal());
+        int completedTasks = (int) statusCounts.get(TaskStatus.COMPLETED.ordinal());
+        int cancelledTasks = (int) statusCounts.get(TaskStatus.CANCELLED.ordinal());
+
+        stats.setNewTasks(newTasks);
+        stats.setInProgressTasks(inProgressTasks);
+        stats.setCompletedTasks(completedTasks);
+        stats.setCancelledTasks(cancelledTasks);
+        stats.setActiveTasks(newTasks + inProgressTasks);
+        stats.setTotalTasks(newTasks + inProgressTasks + completedTasks + cancelledTasks);
+        stats.setOverdueCount((int) Math.max(0, overdueCount.get()));
+        return stats;
+    }
+
+    /**
+     * Полностью пересчитать счётчики одним сгруппированным запросом
+     */
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = taskRepository.countByStatusWithOverdue(now, TaskStatus.COMPLETED);
+
+        long[] counts = new long[TaskStatus.values().length];
+        long overdue = 0;
+        for (Object[] row : rows) {
+            TaskStatus status = (TaskStatus) row[0];
+            counts[status.ordinal()] = ((Number) row[1]).longValue();
+            overdue += row[2] != null ? ((Number) row[2]).longValue() : 0;
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            statusCounts.set(i, counts[i]);
+        }
+        overdueCount.set(overdue);
+        overdueComputedAt = now;
+        initialized = true;
+        log.debug("📊 Статистика пересчитана: {} задач, {} просрочено", sum(counts), overdue);
+    }
+
+    /**
+     * Сбросить счётчики - следующий getStatistics() пересчитает их из БД
+     * (для массовых операций, где инкрементальный учёт дороже пересчёта)
+     */
+    public void invalidate() {
+        initialized = false;
+        // Пересчёт до коммита увидел бы старые строки - сбрасываем ещё раз после него
+        TransactionHooks.afterCommit(() -> initialized = false);
+    }
+
+    // ==================== ИНКРЕМЕНТАЛЬНЫЕ ОБНОВЛЕНИЯ ====================
+
+    /**
+     * Задача создана
+     */
+    public void onTaskCreated(Task task) {
+        if (!initialized || task == null) {
+            return;
+        }
+        TaskStatus status = task.getStatus();
+        boolean overdue = isOverdue(status, task.getDueDate(), LocalDateTime.now());
+        afterCommit(() -> {
+            statusCounts.incrementAndGet(status.ordinal());
+            if (overdue) {
+                overdueCount.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Задача изменена (oldStatus/oldDueDate - значения до изменения)
+     */
+    public void onTaskUpdated(TaskStatus oldStatus, LocalDateTime oldDueDate, Task task) {
+        if (!initialized || task == null) {
+            return;
+        }
+        if (oldStatus == null) {
+            // Состояние до изменения неизвестно - честнее пересчитать
+            invalidate();
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TaskStatus newStatus = task.getStatus();
+        boolean wasOverdue = isOverdue(oldStatus, oldDueDate, now);
+        boolean isOverdue = isOverdue(newStatus, task.getDueDate(), now);
+        if (oldStatus == newStatus && wasOverdue == isOverdue) {
+            return;
+        }
+        afterCommit(() -> {
+            if (oldStatus != newStatus) {
+                statusCounts.decrementAndGet(oldStatus.ordinal());
+                statusCounts.incrementAndGet(newStatus.ordinal());
+            }
+            if (wasOverdue != isOverdue) {
+                overdueCount.addAndGet(isOverdue ? 1 : -1);
+            }
+        });
+    }
+
+    /**
+     * Задача удалена
+     */
+    public void onTaskDeleted(Task task) {
+        if (!initialized || task == null) {
+            return;
+        }
+        TaskStatus status = task.getStatus();
+        boolean overdue = isOverdue(status, task.getDueDate(), LocalDateTime.now());
+        afterCommit(() -> {
+            statusCounts.decrementAndGet(status.ordinal());
+            if (overdue) {
+                overdueCount.decrementAndGet();
+            }
+        });
+    }
+
+    // ==================== ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ====================
+
+    /**
+     * Применить изменение счётчиков после коммита; если к тому времени счётчики сброшены,
+     * пересчёт из БД уже учтёт эту запись
+     */
+    private void afterCommit(Runnable delta) {
+        TransactionHooks.afterCommit(() -> {
+            if (initialized) {
+                delta.run();
+            }
+        });
+    }
+
+    private void refreshOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        overdueCount.set(taskRepository.countOverdue(now, TaskStatus.COMPLETED));
+        overdueComputedAt = now;
+    }
+
+    private static boolean isOverdue(TaskStatus status, LocalDateTime dueDate, LocalDateTime now) {
+        return dueDate != null && dueDate.isBefore(now) && status != TaskStatus.COMPLETED;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,32 @@
+package com.taskmanager.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * TransactionHooks - действия, которые должны выполниться только после коммита
+ *
+ * Кэши и счётчики в памяти меняются после коммита: иначе читатель успеет закэшировать
+ * старое значение до коммита, а при откате в памяти останется то, чего нет в БД.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Выполнить action после коммита текущей транзакции; без транзакции - сразу
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
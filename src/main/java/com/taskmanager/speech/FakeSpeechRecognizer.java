@@ -0,0 +1,135 @@
+package com.taskmanager.speech;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+
+/**
+ * FakeSpeechRecognizer - детерминированный локальный движок для тестов и замеров
+ *
+ * Не распознаёт речь: текст выбирается по контрольной сумме записи, поэтому одна и та же
+ * запись всегда даёт один и тот же результат. Задержка пропорциональна длительности
+ * звука (speech.fake.ms-per-audio-second), что позволяет мерить пропускную способность
+ * и задержки пула SpeechRecognitionService без сервера моделей. В потоковом режиме
+ * после каждой секунды звука выдаётся промежуточная гипотеза (очередное слово фразы).
+ */
+@Component
+public class FakeSpeechRecognizer implements SpeechRecognizer {
+
+    private static final String[] PHRASES = {
+            "Купить молоко завтра",
+            "Позвонить маме в пятницу в 18:00",
+            "Подготовить отчёт до понедельника, высокий приоритет",
+            "Записаться к врачу на следующей неделе",
+            "Оплатить интернет каждый месяц"
+    };
+
+    @Value("${speech.fake.ms-per-audio-second:50}")
+    private long msPerAudioSecond;
+
+    @Override
+    public String getName() {
+        return "fake";
+    }
+
+    @Override
+    public String recognize(InputStream audio, String language) throws SpeechRecognitionException, InterruptedException {
+        try {
+            InputStream in = WavHeader.buffered(audio);
+            WavHeader header = WavHeader.read(in);
+            RecognitionStream stream = new FakeStream(header.getBytesPerSecond(), TranscriptListener.NONE);
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                stream.sendAudio(ByteBuffer.wrap(buffer, 0, read));
+            }
+            stream.finish();
+            return stream.result().get();
+        } catch (IOException e) {
+            throw new SpeechRecognitionException("Не удалось прочитать запись: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new SpeechRecognitionException("Ошибка распознавания: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public RecognitionStream openStream(int sampleRate, String language, TranscriptListener listener) {
+        return new FakeStream(sampleRate * 2, listener);
+    }
+
+    private static String phraseFor(CRC32 crc) {
+        return PHRASES[(int) (crc.getValue() % PHRASES.length)];
+    }
+
+    /**
+     * Синхронный сеанс: задержка и гипотезы выдаются прямо в sendAudio
+     */
+    private class FakeStream implements RecognitionStream {
+
+        private final int bytesPerSecond;
+        private final TranscriptListener listener;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final CRC32 crc = new CRC32();
+        private long bytes;
+
+        FakeStream(int bytesPerSecond, TranscriptListener listener) {
+            this.bytesPerSecond = Math.max(1, bytesPerSecond);
+            this.listener = listener;
+            result.whenComplete((transcript, error) -> {
+                if (error == null) {
+                    listener.onComplete(transcript);
+                } else {
+                    listener.onError(error);
+                }
+            });
+        }
+
+        @Override
+        public void sendAudio(ByteBuffer pcm) throws InterruptedException {
+            if (result.isDone()) {
+                throw new IllegalStateException("Сеанс распознавания уже завершён");
+            }
+            int length = pcm.remaining();
+            long secondsBefore = bytes / bytesPerSecond;
+            crc.update(pcm);
+            bytes += length;
+
+            Thread.sleep(length * 1000L / bytesPerSecond * msPerAudioSecond / 1000);
+            long seconds = bytes / bytesPerSecond;
+            if (seconds > secondsBefore) {
+                String[] words = phraseFor(crc).split(" ");
+                listener.onPartial(String.join(" ", Arrays.copyOf(words, (int) Math.min(seconds, words.length))));
+            }
+        }
+
+        @Override
+        public void finish() {
+            if (result.isDone()) {
+                return;
+            }
+            String text = bytes == 0 ? "" : phraseFor(crc);
+            if (!text.isEmpty()) {
+                listener.onFinal(text);
+            }
+            result.complete(text);
+        }
+
+        @Override
+        public void cancel() {
+            result.completeExceptionally(new CancellationException("Распознавание отменено"));
+        }
+
+        @Override
+        public CompletableFuture<String> result() {
+            return result;
+        }
+    }
+}
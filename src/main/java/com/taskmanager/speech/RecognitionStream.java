@@ -0,0 +1,34 @@
+package com.taskmanager.speech;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RecognitionStream - сеанс потокового распознавания
+ *
+ * Звук (PCM 16 бит моно с частотой, заданной при открытии) передаётся по мере записи,
+ * результаты приходят в TranscriptListener, не дожидаясь конца записи.
+ * Сеанс заканчивается вызовом finish или cancel.
+ */
+public interface RecognitionStream {
+
+    /**
+     * Передать очередной фрагмент PCM; буфер можно переиспользовать после возврата
+     */
+    void sendAudio(ByteBuffer pcm) throws SpeechRecognitionException, InterruptedException;
+
+    /**
+     * Конец записи; итоговые результаты придут асинхронно (см. result)
+     */
+    void finish() throws SpeechRecognitionException, InterruptedException;
+
+    /**
+     * Прервать сеанс; result завершится CancellationException
+     */
+    void cancel();
+
+    /**
+     * Полный текст после завершения сеанса
+     */
+    CompletableFuture<String> result();
+}
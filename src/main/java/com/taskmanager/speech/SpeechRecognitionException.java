@@ -0,0 +1,15 @@
+package com.taskmanager.speech;
+
+/**
+ * SpeechRecognitionException - движок не смог распознать запись
+ */
+public class SpeechRecognitionException extends Exception {
+
+    public SpeechRecognitionException(String message) {
+        super(message);
+    }
+
+    public SpeechRecognitionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,35 @@
+package com.taskmanager.speech;
+
+import java.io.InputStream;
+
+/**
+ * SpeechRecognizer - движок распознавания речи (SPI)
+ *
+ * Реализации - Spring-компоненты; SpeechRecognitionService выбирает движок по имени
+ * из speech.recognition.provider и вызывает его из своего пула потоков.
+ * Реализация должна реагировать на прерывание потока: так работают таймауты и отмена.
+ */
+public interface SpeechRecognizer {
+
+    /**
+     * Имя движка для speech.recognition.provider
+     */
+    String getName();
+
+    /**
+     * Распознать запись целиком
+     *
+     * @param audio    WAV (PCM 16 бит) или сырой PCM 16 кГц 16 бит моно
+     * @param language код языка (например, ru_RU); движок может его игнорировать
+     * @return распознанный текст (пустая строка, если речи нет)
+     */
+    String recognize(InputStream audio, String language) throws SpeechRecognitionException, InterruptedException;
+
+    /**
+     * Открыть сеанс потокового распознавания PCM 16 бит моно
+     *
+     * @param listener получатель промежуточных и итоговых результатов
+     */
+    RecognitionStream openStream(int sampleRate, String language, TranscriptListener listener)
+            throws SpeechRecognitionException, InterruptedException;
+}
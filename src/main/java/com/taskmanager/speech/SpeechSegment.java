@@ -0,0 +1,28 @@
+package com.taskmanager.speech;
+
+/**
+ * SpeechSegment - участок речи в PCM-буфере: байты [start, end) от начала данных
+ */
+public class SpeechSegment {
+    private final int start;
+    private final int end;
+
+    public SpeechSegment(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getStart() { return start; }
+
+    public int getEnd() { return end; }
+
+    public int getLength() { return end - start; }
+
+    @Override
+    public String toString() {
+        return "SpeechSegment{" +
+                "start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.taskmanager.speech;
+
+/**
+ * TranscriptListener - получатель результатов потокового распознавания
+ *
+ * Вызывается из потоков движка (не из потока UI). onComplete или onError вызывается
+ * ровно один раз, после него других вызовов нет.
+ */
+public interface TranscriptListener {
+
+    TranscriptListener NONE = new TranscriptListener() { };
+
+    /**
+     * Промежуточная гипотеза по текущей фразе; следующая гипотеза или onFinal её заменяет
+     */
+    default void onPartial(String text) { }
+
+    /**
+     * Итоговый текст очередной фразы
+     */
+    default void onFinal(String text) { }
+
+    /**
+     * Распознавание завершено; transcript - все итоговые фразы через пробел
+     */
+    default void onComplete(String transcript) { }
+
+    /**
+     * Распознавание прервано ошибкой или отменой (CancellationException)
+     */
+    default void onError(Throwable error) { }
+}
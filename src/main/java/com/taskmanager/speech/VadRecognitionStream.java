@@ -0,0 +1,130 @@
+package com.taskmanager.speech;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * VadRecognitionStream - фильтр тишины перед потоковым распознаванием
+ *
+ * Звук режется на кадры VoiceActivityDetector; кадры речи передаются дальше, длинная
+ * тишина - нет. Последние paddingMs тишины перед речью хранятся в кольцевом буфере и
+ * отправляются вместе с первым кадром речи; после речи ещё minPauseMs тишины передаётся,
+ * чтобы движок увидел паузу и закрыл фразу. Все буферы выделяются при открытии сеанса.
+ */
+public class VadRecognitionStream implements RecognitionStream {
+
+    private final RecognitionStream downstream;
+    private final VoiceActivityDetector detector;
+    private final VadStats stats;
+
+    private final ByteBuffer frame;
+    private final ByteBuffer[] preRoll;
+    private final int tailFrames;
+
+    private int preRollStart;
+    private int preRollSize;
+    private boolean inSpeech;
+    private int silentFrames;
+    private long totalBytes;
+    private long keptBytes;
+
+    public VadRecognitionStream(RecognitionStream downstream, VoiceActivityDetector detector, VadStats stats,
+                                int sampleRate) {
+        this.downstream = downstream;
+        this.detector = detector;
+        this.stats = stats;
+
+        int frameBytes = detector.frameBytes(sampleRate);
+        this.frame = ByteBuffer.allocate(frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+        int preRollFrames = (detector.paddingBytes(sampleRate) + frameBytes - 1) / frameBytes;
+        this.preRoll = new ByteBuffer[preRollFrames];
+        for (int i = 0; i < preRollFrames; i++) {
+            preRoll[i] = ByteBuffer.allocate(frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.tailFrames = Math.max(1, detector.minPauseBytes(sampleRate) / frameBytes);
+    }
+
+    @Override
+    public void sendAudio(ByteBuffer pcm) throws SpeechRecognitionException, InterruptedException {
+        while (pcm.hasRemaining()) {
+            int count = Math.min(frame.remaining(), pcm.remaining());
+            ByteBuffer part = pcm.slice();
+            part.limit(count);
+            frame.put(part);
+            pcm.position(pcm.position() + count);
+            if (!frame.hasRemaining()) {
+                processFrame();
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws SpeechRecognitionException, InterruptedException {
+        if (frame.position() > 0) {
+            processFrame();
+        }
+        stats.record(totalBytes, keptBytes);
+        downstream.finish();
+    }
+
+    @Override
+    public void cancel() {
+        downstream.cancel();
+    }
+
+    @Override
+    public CompletableFuture<String> result() {
+        return downstream.result();
+    }
+
+    private void processFrame() throws SpeechRecognitionException, InterruptedException {
+        frame.flip();
+        int length = frame.remaining();
+        totalBytes += length;
+
+        if (detector.isSpeech(frame, 0, length)) {
+            if (!inSpeech) {
+                flushPreRoll();
+                inSpeech = true;
+            }
+            silentFrames = 0;
+            forward(frame);
+        } else if (inSpeech && ++silentFrames <= tailFrames) {
+            forward(frame);
+        } else {
+            inSpeech = false;
+            remember(frame);
+        }
+        frame.clear();
+    }
+
+    private void forward(ByteBuffer buffer) throws SpeechRecognitionException, InterruptedException {
+        keptBytes += buffer.remaining();
+        downstream.sendAudio(buffer);
+    }
+
+    // Кольцевой буфер последних кадров тишины; копирование без выделения памяти
+    private void remember(ByteBuffer buffer) {
+        if (preRoll.length == 0) {
+            return;
+        }
+        int slot = (preRollStart + preRollSize) % preRoll.length;
+        if (preRollSize == preRoll.length) {
+            preRollStart = (preRollStart + 1) % preRoll.length;
+        } else {
+            preRollSize++;
+        }
+        preRoll[slot].clear();
+        preRoll[slot].put(buffer);
+        preRoll[slot].flip();
+    }
+
+    private void flushPreRoll() throws SpeechRecognitionException, InterruptedException {
+        for (int i = 0; i < preRollSize; i++) {
+            forward(preRoll[(preRollStart + i) % preRoll.length]);
+        }
+        preRollStart = 0;
+        preRollSize = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.speech;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VadStats - сколько звука отсеял детектор речи (с момента старта)
+ */
+public class VadStats {
+
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong keptBytes = new AtomicLong();
+
+    public void record(long total, long kept) {
+        totalBytes.addAndGet(total);
+        keptBytes.addAndGet(kept);
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getKeptBytes() {
+        return keptBytes.get();
+    }
+
+    /**
+     * Доля звука, не переданная движку распознавания (0..1)
+     */
+    public double getTrimmedRatio() {
+        long total = totalBytes.get();
+        return total == 0 ? 0 : 1.0 - (double) keptBytes.get() / total;
+    }
+}
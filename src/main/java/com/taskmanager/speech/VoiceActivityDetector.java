@@ -0,0 +1,126 @@
+package com.taskmanager.speech;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * VoiceActivityDetector - поиск речи в PCM 16 бит моно по энергии и числу переходов через ноль
+ *
+ * Запись делится на кадры по frameMs. Кадр считается речью, если его RMS не ниже
+ * energyThreshold, либо не ниже половины порога при высокой доле переходов через ноль
+ * (глухие согласные: тихие, но «шумные»). Отсчёты читаются прямо из буфера, без копирования
+ * в массивы. Паузы длиннее minPauseMs делят запись на сегменты, к каждому сегменту
+ * добавляется paddingMs тишины с обеих сторон, чтобы не обрезать края слов.
+ */
+public class VoiceActivityDetector {
+
+    private final int frameMs;
+    private final double energyThreshold;
+    private final double zeroCrossingThreshold;
+    private final int minPauseMs;
+    private final int minSpeechMs;
+    private final int paddingMs;
+
+    public VoiceActivityDetector(int frameMs, double energyThreshold, double zeroCrossingThreshold,
+                                 int minPauseMs, int minSpeechMs, int paddingMs) {
+        this.frameMs = Math.max(1, frameMs);
+        this.energyThreshold = energyThreshold;
+        this.zeroCrossingThreshold = zeroCrossingThreshold;
+        this.minPauseMs = minPauseMs;
+        this.minSpeechMs = minSpeechMs;
+        this.paddingMs = paddingMs;
+    }
+
+    /**
+     * Найти сегменты речи в данных буфера (от position до limit, little-endian)
+     *
+     * Позиция буфера не меняется; смещения сегментов - от position.
+     */
+    public List<SpeechSegment> detect(ByteBuffer pcm, int sampleRate) {
+        ByteBuffer data = pcm.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int total = data.remaining() & ~1;
+        int frameBytes = frameBytes(sampleRate);
+        int minPauseBytes = millisToBytes(minPauseMs, sampleRate);
+
+        List<SpeechSegment> segments = new ArrayList<>();
+        int start = -1;
+        int lastSpeechEnd = 0;
+        for (int offset = 0; offset < total; offset += frameBytes) {
+            int length = Math.min(frameBytes, total - offset);
+            if (!isSpeech(data, offset, length)) {
+                continue;
+            }
+            if (start < 0) {
+                start = offset;
+            } else if (offset - lastSpeechEnd >= minPauseBytes) {
+                addSegment(segments, start, lastSpeechEnd, total, sampleRate);
+                start = offset;
+            }
+            lastSpeechEnd = offset + length;
+        }
+        if (start >= 0) {
+            addSegment(segments, start, lastSpeechEnd, total, sampleRate);
+        }
+        return segments;
+    }
+
+    /**
+     * Кадр [offset, offset + length) буфера с порядком little-endian - речь?
+     */
+    public boolean isSpeech(ByteBuffer data, int offset, int length) {
+        int samples = length / 2;
+        if (samples == 0) {
+            return false;
+        }
+        long sumSquares = 0;
+        int crossings = 0;
+        short previous = data.getShort(offset);
+        for (int i = 0; i < samples; i++) {
+            short sample = data.getShort(offset + i * 2);
+            sumSquares += (long) sample * sample;
+            if ((sample ^ previous) < 0) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        double rms = Math.sqrt((double) sumSquares / samples);
+        if (rms >= energyThreshold) {
+            return true;
+        }
+        return rms >= energyThreshold / 2 && (double) crossings / samples >= zeroCrossingThreshold;
+    }
+
+    public int frameBytes(int sampleRate) {
+        return Math.max(2, millisToBytes(frameMs, sampleRate));
+    }
+
+    public int minPauseBytes(int sampleRate) {
+        return millisToBytes(minPauseMs, sampleRate);
+    }
+
+    public int paddingBytes(int sampleRate) {
+        return millisToBytes(paddingMs, sampleRate);
+    }
+
+    private void addSegment(List<SpeechSegment> segments, int start, int end, int total, int sampleRate) {
+        if (end - start < millisToBytes(minSpeechMs, sampleRate)) {
+            return;
+        }
+        int padding = paddingBytes(sampleRate);
+        int paddedStart = Math.max(0, start - padding);
+        int paddedEnd = Math.min(total, end + padding);
+        // После добавления отступов соседние сегменты могут перекрыться - склеиваем
+        if (!segments.isEmpty() && segments.get(segments.size() - 1).getEnd() >= paddedStart) {
+            SpeechSegment previous = segments.remove(segments.size() - 1);
+            paddedStart = previous.getStart();
+        }
+        segments.add(new SpeechSegment(paddedStart, paddedEnd));
+    }
+
+    // 16 бит моно: 2 байта на отсчёт, с выравниванием на отсчёт
+    private static int millisToBytes(int millis, int sampleRate) {
+        return (int) ((long) sampleRate * millis / 1000) * 2;
+    }
+}
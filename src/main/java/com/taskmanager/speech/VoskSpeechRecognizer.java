@@ -0,0 +1,218 @@
+package com.taskmanager.speech;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * VoskSpeechRecognizer - распознавание через локальный vosk-server (WebSocket)
+ *
+ * Протокол vosk-server: конфигурация {"config": {"sample_rate": N}}, затем PCM бинарными
+ * кадрами, затем {"eof": 1}; в ответ на каждый кадр сервер присылает промежуточную
+ * гипотезу ("partial") или итог фразы ("text"), после eof - последний итог, и закрывает
+ * соединение. Модель и язык задаются при запуске сервера.
+ */
+@Component
+public class VoskSpeechRecognizer implements SpeechRecognizer {
+
+    // 0.25 с звука 16 кГц 16 бит - размер кадра из примеров vosk-server
+    private static final int FRAME_BYTES = 8000;
+
+    @Value("${vosk.server.url:http://localhost:2700}")
+    private String serverUrl;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Override
+    public String getName() {
+        return "vosk";
+    }
+
+    @Override
+    public String recognize(InputStream audio, String language) throws SpeechRecognitionException, InterruptedException {
+        WavHeader header;
+        InputStream in = WavHeader.buffered(audio);
+        try {
+            header = WavHeader.read(in);
+        } catch (IOException e) {
+            throw new SpeechRecognitionException("Не удалось прочитать запись: " + e.getMessage(), e);
+        }
+        if (header.getChannels() != 1 || header.getBitsPerSample() != 16) {
+            throw new SpeechRecognitionException("Vosk ждёт PCM 16 бит моно, получено: " +
+                    header.getChannels() + " кан., " + header.getBitsPerSample() + " бит");
+        }
+
+        RecognitionStream stream = openStream(header.getSampleRate(), language, TranscriptListener.NONE);
+        try {
+            byte[] frame = new byte[FRAME_BYTES];
+            int read;
+            while ((read = in.readNBytes(frame, 0, frame.length)) > 0) {
+                stream.sendAudio(ByteBuffer.wrap(frame, 0, read));
+            }
+            stream.finish();
+            return await(stream.result());
+        } catch (IOException e) {
+            stream.cancel();
+            throw new SpeechRecognitionException("Не удалось прочитать запись: " + e.getMessage(), e);
+        } catch (SpeechRecognitionException | InterruptedException | RuntimeException e) {
+            stream.cancel();
+            throw e;
+        }
+    }
+
+    @Override
+    public RecognitionStream openStream(int sampleRate, String language, TranscriptListener listener)
+            throws SpeechRecognitionException, InterruptedException {
+        ResultCollector collector = new ResultCollector(listener);
+        WebSocket socket = await(httpClient.newWebSocketBuilder().buildAsync(webSocketUri(), collector));
+        VoskStream stream = new VoskStream(socket, collector);
+        try {
+            await(socket.sendText("{\"config\": {\"sample_rate\": " + sampleRate + "}}", true));
+        } catch (SpeechRecognitionException | InterruptedException e) {
+            stream.cancel();
+            throw e;
+        }
+        return stream;
+    }
+
+    URI webSocketUri() {
+        return URI.create(serverUrl.replaceFirst("^http", "ws"));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws SpeechRecognitionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof SpeechRecognitionException recognitionError) {
+                throw recognitionError;
+            }
+            throw new SpeechRecognitionException("Vosk недоступен: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Сеанс поверх одного WebSocket-соединения
+     */
+    private static class VoskStream implements RecognitionStream {
+
+        private final WebSocket socket;
+        private final ResultCollector collector;
+
+        VoskStream(WebSocket socket, ResultCollector collector) {
+            this.socket = socket;
+            this.collector = collector;
+        }
+
+        @Override
+        public void sendAudio(ByteBuffer pcm) throws SpeechRecognitionException, InterruptedException {
+            // sendBinary не копирует буфер - ждём отправки, чтобы вызывающий мог его переиспользовать
+            await(socket.sendBinary(pcm, true));
+        }
+
+        @Override
+        public void finish() throws SpeechRecognitionException, InterruptedException {
+            await(socket.sendText("{\"eof\": 1}", true));
+        }
+
+        @Override
+        public void cancel() {
+            collector.result.completeExceptionally(new CancellationException("Распознавание отменено"));
+            socket.abort();
+        }
+
+        @Override
+        public CompletableFuture<String> result() {
+            return collector.result;
+        }
+    }
+
+    /**
+     * Разбирает ответы сервера и собирает итоговые фразы до закрытия соединения
+     */
+    private static class ResultCollector implements WebSocket.Listener {
+
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        private final TranscriptListener listener;
+        private final StringBuilder message = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+
+        ResultCollector(TranscriptListener listener) {
+            this.listener = listener;
+            result.whenComplete((transcript, error) -> {
+                if (error == null) {
+                    listener.onComplete(transcript);
+                } else {
+                    listener.onError(error);
+                }
+            });
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            message.append(data);
+            if (last) {
+                onMessage(message.toString());
+                message.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        private void onMessage(String json) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+                if (object.has("partial")) {
+                    String partial = object.get("partial").getAsString().trim();
+                    if (!partial.isEmpty()) {
+                        listener.onPartial(partial);
+                    }
+                } else if (object.has("text")) {
+                    String phrase = object.get("text").getAsString().trim();
+                    if (!phrase.isEmpty()) {
+                        if (text.length() > 0) {
+                            text.append(' ');
+                        }
+                        text.append(phrase);
+                        listener.onFinal(phrase);
+                    }
+                }
+            } catch (JsonParseException | IllegalStateException e) {
+                result.completeExceptionally(new SpeechRecognitionException("Некорректный ответ Vosk: " + json, e));
+            }
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            result.complete(text.toString());
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.taskmanager.speech;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WavHeader - параметры PCM-записи из заголовка RIFF/WAVE
+ *
+ * read() оставляет поток на начале данных. Если заголовка нет, запись считается
+ * сырым PCM 16 кГц 16 бит моно (формат, который ждёт Vosk).
+ */
+public class WavHeader {
+
+    public static final int DEFAULT_SAMPLE_RATE = 16000;
+
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    // -1, если длина данных неизвестна (сырой PCM)
+    private final long dataLength;
+
+    public WavHeader(int sampleRate, int channels, int bitsPerSample, long dataLength) {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * Прочитать заголовок; поток должен поддерживать mark/reset (см. buffered)
+     */
+    public static WavHeader read(InputStream in) throws IOException {
+        in.mark(12);
+        byte[] riff = in.readNBytes(12);
+        if (riff.length < 12 || !"RIFF".equals(new String(riff, 0, 4, StandardCharsets.US_ASCII))
+                || !"WAVE".equals(new String(riff, 8, 4, StandardCharsets.US_ASCII))) {
+            in.reset();
+            return new WavHeader(DEFAULT_SAMPLE_RATE, 1, 16, -1);
+        }
+
+        DataInputStream data = new DataInputStream(in);
+        int sampleRate = DEFAULT_SAMPLE_RATE;
+        int channels = 1;
+        int bits = 16;
+        while (true) {
+            byte[] id = data.readNBytes(4);
+            if (id.length < 4) {
+                throw new IOException("WAV без блока data");
+            }
+            long size = Integer.toUnsignedLong(Integer.reverseBytes(data.readInt()));
+            String chunk = new String(id, StandardCharsets.US_ASCII);
+            if ("fmt ".equals(chunk)) {
+                int format = Short.toUnsignedInt(Short.reverseBytes(data.readShort()));
+                channels = Short.toUnsignedInt(Short.reverseBytes(data.readShort()));
+                sampleRate = Integer.reverseBytes(data.readInt());
+                data.skipNBytes(6); // byte rate + block align
+                bits = Short.toUnsignedInt(Short.reverseBytes(data.readShort()));
+                // 1 - PCM, 0xFFFE - WAVE_FORMAT_EXTENSIBLE (обычно тоже PCM)
+                if (format != 1 && format != 0xFFFE) {
+                    throw new IOException("Поддерживается только PCM WAV, формат: " + format);
+                }
+                data.skipNBytes(size - 16 + (size & 1));
+            } else if ("data".equals(chunk)) {
+                return new WavHeader(sampleRate, channels, bits, size);
+            } else {
+                data.skipNBytes(size + (size & 1));
+            }
+        }
+    }
+
+    /**
+     * Прочитать заголовок из буфера; позиция буфера встаёт на начало данных
+     */
+    public static WavHeader read(ByteBuffer audio) throws IOException {
+        return read(new ByteBufferInputStream(audio));
+    }
+
+    /**
+     * Обернуть поток так, чтобы read() мог вернуться к началу при отсутствии заголовка
+     */
+    public static InputStream buffered(InputStream in) {
+        return in.markSupported() ? in : new BufferedInputStream(in);
+    }
+
+    public int getSampleRate() { return sampleRate; }
+
+    public int getChannels() { return channels; }
+
+    public int getBitsPerSample() { return bitsPerSample; }
+
+    public long getDataLength() { return dataLength; }
+
+    public int getBytesPerSecond() {
+        return sampleRate * channels * Math.max(1, bitsPerSample / 8);
+    }
+
+    /**
+     * Поток поверх буфера без копирования: читает с позиции буфера и сдвигает её
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.reset();
+        }
+    }
+}
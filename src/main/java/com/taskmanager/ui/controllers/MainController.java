@@ -1,15 +1,25 @@
 package com.taskmanager.ui.controllers;
 
 import com.taskmanager.service.TaskService;
+import com.taskmanager.service.AlertEvent;
 import com.taskmanager.service.AlertService;
 import com.taskmanager.service.AudioFileService;
+import com.taskmanager.service.DueDateClassifier;
+import com.taskmanager.dto.TaskCursor;
+import com.taskmanager.dto.TaskPage;
+import com.taskmanager.dto.TaskSearchHitDTO;
+import com.taskmanager.dto.TaskSummaryDTO;
+import com.taskmanager.model.DueDateCategory;
 import com.taskmanager.model.Task;
 import com.taskmanager.model.TaskStatus;
 import com.taskmanager.model.RecurrenceType;
 import com.taskmanager.model.Alert;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.VBox;
@@ -17,13 +27,18 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.util.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.time.LocalTime;
 
@@ -39,10 +54,30 @@ public class MainController {
     @Autowired
     private AudioFileService audioFileService;
 
+    @Autowired
+    private DueDateClassifier dueDateClassifier;
+
     // ==================== ФОРМАТЕР ДАТЫ ====================
     private static final DateTimeFormatter tableFormatter =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
+    // ==================== ПАГИНАЦИЯ ТАБЛИЦЫ ====================
+    private static final int TASKS_PAGE_SIZE = 100;
+
+    // Догружать следующую страницу, когда прокрутка прошла 90% списка
+    private static final double TASKS_PREFETCH_THRESHOLD = 0.9;
+
+    // Непрочитанные оповещения грузятся страницами по мере прокрутки списка
+    private static final int ALERTS_PAGE_SIZE = 50;
+
+    // Поиск запускается, когда пользователь перестал печатать на столько миллисекунд
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(300);
+
+    // ==================== ПОДСВЕТКА СРОКОВ ====================
+    private static final String OVERDUE_ROW_STYLE = "-fx-background-color: rgba(255, 100, 100, 0.15);";
+    private static final String TODAY_ROW_STYLE = "-fx-background-color: rgba(255, 200, 100, 0.15);";
+    private static final String WEEK_ROW_STYLE = "-fx-background-color: rgba(100, 150, 255, 0.15);";
+
     // ==================== UI COMPONENTS ====================
 
     @FXML
@@ -67,19 +102,19 @@ public class MainController {
     private VBox intervalContainer;
 
     @FXML
-    private TableView<Task> tasksTable;
+    private TableView<TaskSummaryDTO> tasksTable;
 
     @FXML
-    private TableColumn<Task, String> titleColumn;
+    private TableColumn<TaskSummaryDTO, String> titleColumn;
 
     @FXML
-    private TableColumn<Task, TaskStatus> statusColumn;
+    private TableColumn<TaskSummaryDTO, TaskStatus> statusColumn;
 
     @FXML
-    private TableColumn<Task, Integer> priorityColumn;
+    private TableColumn<TaskSummaryDTO, Integer> priorityColumn;
 
     @FXML
-    private TableColumn<Task, String> dueDateColumn;
+    private TableColumn<TaskSummaryDTO, String> dueDateColumn;
 
     @FXML
     private Button createTaskButtonLeft;
@@ -87,16 +122,45 @@ public class MainController {
     @FXML
     private Button deleteTaskButtonRight;
 
+    @FXML
+    private Button completeTasksButton;
+
     @FXML
     private ComboBox<String> statusFilter;
 
+    @FXML
+    private TextField searchInput;
+
     @FXML
     private Label alertsCountLabel;
 
     @FXML
-    private ListView<String> alertsListView;
+    private ListView<Alert> alertsListView;
 
-    private ObservableList<Task> tasksList;
+    // Загруженные страницы непрочитанных оповещений; дальше меняются дельтами из AlertEvent (в потоке FX)
+    private final ObservableList<Alert> alertsList = FXCollections.observableArrayList();
+
+    // Те же оповещения по id - проверка "уже в списке" без прохода по списку; меняется только вместе с alertsList
+    private final Map<Long, Alert> alertsById = new HashMap<>();
+
+    // Полное число непрочитанных (список может быть загружен не целиком)
+    private long unreadAlertsCount;
+
+    // Последнее оповещение последней загруженной страницы (курсор следующей)
+    private Alert lastLoadedAlert;
+    private boolean hasMoreAlerts;
+
+    // Таблица работает с облегчёнными проекциями, полная Task грузится при открытии окна деталей
+    private ObservableList<TaskSummaryDTO> tasksList;
+
+    // Текущий набор статусов и курсор следующей страницы (null - страниц больше нет)
+    private List<TaskStatus> currentStatuses = List.of();
+    private TaskCursor nextTasksCursor;
+    private boolean hasMoreTasks;
+
+    // Активный поисковый запрос (null - показываем фильтр по статусу) и курсор его страниц
+    private String activeSearchQuery;
+    private TaskSearchHitDTO lastSearchHit;
 
     // ==================== ИНИЦИАЛИЗАЦИЯ ====================
 
@@ -149,7 +213,7 @@ public class MainController {
         );
 
         dueDateColumn.setCellValueFactory(cellData -> {
-            Task task = cellData.getValue();
+            TaskSummaryDTO task = cellData.getValue();
             if (task.getDueDate() != null) {
                 String formattedDate = task.getDueDate().format(tableFormatter);
                 return new javafx.beans.property.SimpleStringProperty(formattedDate);
@@ -158,9 +222,9 @@ public class MainController {
         });
 
         // ✅ Применить стиль подсвечивания задач на основе категории
-        tasksTable.setRowFactory(tableView -> new TableRow<Task>() {
+        tasksTable.setRowFactory(tableView -> new TableRow<TaskSummaryDTO>() {
             @Override
-            protected void updateItem(Task task, boolean empty) {
+            protected void updateItem(TaskSummaryDTO task, boolean empty) {
                 super.updateItem(task, empty);
 
                 if (empty || task == null) {
@@ -174,37 +238,41 @@ public class MainController {
                     return;
                 }
 
-                // Фоновый цвет только для НЕвыбранных строк
-                if (task.isOverdue()) {
-                    setStyle("-fx-background-color: rgba(255, 100, 100, 0.15);");
-                } else if (task.isTodayOrTomorrow()) {
-                    setStyle("-fx-background-color: rgba(255, 200, 100, 0.15);");
-                } else if (task.isThisWeek()) {
-                    setStyle("-fx-background-color: rgba(100, 150, 255, 0.15);");
+                // Фоновый цвет только для НЕвыбранных строк; категория посчитана заранее
+                DueDateCategory category = task.getDueCategory();
+                if (category == DueDateCategory.OVERDUE) {
+                    setStyle(OVERDUE_ROW_STYLE);
+                } else if (category == DueDateCategory.TODAY_OR_TOMORROW) {
+                    setStyle(TODAY_ROW_STYLE);
+                } else if (category == DueDateCategory.THIS_WEEK) {
+                    setStyle(WEEK_ROW_STYLE);
                 } else {
                     setStyle("");
                 }
             }
         });
 
+        // Страницы подгружаются по мере прокрутки таблицы
+        setupTasksScrollPaging();
+
+        // Поиск с задержкой: запрос уходит в БД только после паузы во вводе
+        setupSearchDebounce();
+
+        // Множественный выбор для массовых операций
+        tasksTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setupTasksContextMenu();
+
+        // Категории сроков пересчитываются, когда наступает полночь
+        scheduleMidnightRefresh();
+
         intervalContainer.setVisible(false);
 
         // ✅ Загрузить задачи при запуске (NEW + IN_PROGRESS по умолчанию)
         loadTasksByStatuses(TaskStatus.NEW, TaskStatus.IN_PROGRESS);
-        updateAlertsCount();
 
-        // Обновлять оповещения каждые 10 секунд
-        new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(10000);
-                    Platform.runLater(this::updateAlertsCount);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        }).start();
+        // Оповещения загружаются один раз, дальше список обновляется событиями AlertEvent
+        setupAlertsList();
+        loadAlerts();
     }
 
     // ==================== ОБРАБОТЧИКИ СОБЫТИЙ ====================
@@ -262,7 +330,7 @@ public class MainController {
                     recurrenceType
             );
 
-            tasksList.add(newTask);
+            tasksList.add(classify(TaskSummaryDTO.from(newTask)));
 
             taskNameInput.clear();
             taskDescriptionInput.clear();
@@ -279,12 +347,12 @@ public class MainController {
     }
 
     /**
-     * Удалить задачу с подтверждением
+     * Удалить выбранные задачи с подтверждением
      */
     @FXML
     private void handleDeleteTask() {
-        Task selected = tasksTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        List<TaskSummaryDTO> selected = List.copyOf(tasksTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
             showAlert("Ошибка", "Выберите задачу для удаления!");
             return;
         }
@@ -295,16 +363,18 @@ public class MainController {
         );
         confirmAlert.setTitle("Подтверждение удаления");
         confirmAlert.setHeaderText(null);
-        confirmAlert.setContentText("Вы уверены, что хотите удалить задачу:\n\"" + selected.getTitle() + "\"?");
+        confirmAlert.setContentText(selected.size() == 1
+                ? "Вы уверены, что хотите удалить задачу:\n\"" + selected.get(0).getTitle() + "\"?"
+                : "Вы уверены, что хотите удалить выбранные задачи (" + selected.size() + " шт.)?");
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
 
         // Если пользователь нажал ОК (подтвердил)
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
-                taskService.deleteTask(selected.getId());
-                tasksList.remove(selected);
-                showAlert("Успех", "Задача удалена!");
+                int deleted = taskService.deleteTasks(selectedIds(selected));
+                tasksList.removeAll(selected);
+                showAlert("Успех", deleted == 1 ? "Задача удалена!" : "Удалено задач: " + deleted);
             } catch (Exception e) {
                 showAlert("Ошибка", "Не удалось удалить задачу: " + e.getMessage());
             }
@@ -312,6 +382,77 @@ public class MainController {
         // Если нажал Отмена - ничего не делаем
     }
 
+    /**
+     * Завершить выбранные задачи (повторяющиеся получат следующую копию)
+     */
+    @FXML
+    private void handleCompleteSelectedTasks() {
+        changeSelectedTasksStatus(TaskStatus.COMPLETED);
+    }
+
+    /**
+     * Сменить статус всех выбранных задач одной массовой операцией
+     */
+    private void changeSelectedTasksStatus(TaskStatus status) {
+        List<TaskSummaryDTO> selected = List.copyOf(tasksTable.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
+            showAlert("Ошибка", "Выберите задачи!");
+            return;
+        }
+
+        try {
+            taskService.changeStatus(selectedIds(selected), status);
+            reloadTasks();
+        } catch (Exception e) {
+            showAlert("Ошибка", "Не удалось изменить статус: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Отменить все просроченные активные задачи
+     */
+    private void handleCancelOverdue() {
+        try {
+            int cancelled = taskService.cancelOverdue(LocalDateTime.now());
+            reloadTasks();
+            showAlert("Успех", "Отменено просроченных задач: " + cancelled);
+        } catch (Exception e) {
+            showAlert("Ошибка", "Не удалось отменить просроченные задачи: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Контекстное меню таблицы: массовая смена статуса
+     */
+    private void setupTasksContextMenu() {
+        Menu statusMenu = new Menu("Сменить статус");
+        for (TaskStatus status : TaskStatus.values()) {
+            MenuItem item = new MenuItem(status.name());
+            item.setOnAction(e -> changeSelectedTasksStatus(status));
+            statusMenu.getItems().add(item);
+        }
+
+        MenuItem completeItem = new MenuItem("Завершить выбранные");
+        completeItem.setOnAction(e -> handleCompleteSelectedTasks());
+
+        MenuItem deleteItem = new MenuItem("Удалить выбранные");
+        deleteItem.setOnAction(e -> handleDeleteTask());
+
+        MenuItem cancelOverdueItem = new MenuItem("Отменить все просроченные");
+        cancelOverdueItem.setOnAction(e -> handleCancelOverdue());
+
+        tasksTable.setContextMenu(new ContextMenu(
+                completeItem, statusMenu, deleteItem, new SeparatorMenuItem(), cancelOverdueItem));
+    }
+
+    private static List<Long> selectedIds(List<TaskSummaryDTO> rows) {
+        List<Long> ids = new java.util.ArrayList<>(rows.size());
+        for (TaskSummaryDTO row : rows) {
+            ids.add(row.getId());
+        }
+        return ids;
+    }
+
     /**
      * Открыть окно с деталями задачи (редактируемое)
      */
@@ -529,8 +670,10 @@ public class MainController {
                     task.setRecurrenceInterval(intervalSpinner2.getValue());
                     task.setUpdatedAt(LocalDateTime.now());
 
-                    taskService.updateTask(task);
-                    tasksTable.refresh();
+                    Task updated = taskService.updateTask(task);
+                    if (updated != null) {
+                        replaceTaskRow(updated);
+                    }
 
                     showAlert("Успех", "Задача обновлена!");
                     detailStage.close();
@@ -585,9 +728,28 @@ public class MainController {
     @FXML
     private void handleTaskClick(MouseEvent event) {
         if (event.getClickCount() == 2) {
-            Task selected = tasksTable.getSelectionModel().getSelectedItem();
+            TaskSummaryDTO selected = tasksTable.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                openTaskDetailWindow(selected);
+                // Полная сущность (с описанием) нужна только окну деталей
+                Task task = taskService.getTaskById(selected.getId());
+                if (task == null) {
+                    tasksList.remove(selected);
+                    showAlert("Ошибка", "Задача не найдена - возможно, она уже удалена");
+                    return;
+                }
+                openTaskDetailWindow(task);
+            }
+        }
+    }
+
+    /**
+     * Обновить строку таблицы после сохранения задачи
+     */
+    private void replaceTaskRow(Task task) {
+        for (int i = 0; i < tasksList.size(); i++) {
+            if (tasksList.get(i).getId().equals(task.getId())) {
+                tasksList.set(i, classify(TaskSummaryDTO.from(task)));
+                return;
             }
         }
     }
@@ -622,43 +784,167 @@ public class MainController {
 
         try {
             TaskStatus status = TaskStatus.valueOf(selected);
-            List<Task> filtered = taskService.getTasksByStatus(status);
-            tasksList.clear();
-            tasksList.addAll(filtered);
+            loadTasksByStatuses(status);
         } catch (Exception e) {
             showAlert("Ошибка", "Не удалось отфильтровать задачи: " + e.getMessage());
         }
     }
 
     /**
-     * Загрузить задачи нескольких статусов
+     * Загрузить задачи нескольких статусов (первая страница, остальные - при прокрутке)
      */
     private void loadTasksByStatuses(TaskStatus... statuses) {
-        try {
-            List<Task> allTasks = new java.util.ArrayList<>();
-            for (TaskStatus status : statuses) {
-                allTasks.addAll(taskService.getTasksByStatus(status));
+        activeSearchQuery = null;
+        currentStatuses = Arrays.asList(statuses);
+        nextTasksCursor = null;
+        hasMoreTasks = true;
+        tasksList.clear();
+        dueDateClassifier.refresh();
+        loadNextTasksPage();
+    }
+
+    /**
+     * Перезагрузить текущий фильтр (или поиск) с первой страницы
+     */
+    private void reloadTasks() {
+        if (activeSearchQuery != null) {
+            searchTasks(activeSearchQuery);
+            return;
+        }
+        loadTasksByStatuses(currentStatuses.toArray(new TaskStatus[0]));
+    }
+
+    /**
+     * Показать результаты полнотекстового поиска (первая страница, остальные - при прокрутке)
+     */
+    private void searchTasks(String query) {
+        activeSearchQuery = query;
+        lastSearchHit = null;
+        hasMoreTasks = true;
+        tasksList.clear();
+        dueDateClassifier.refresh();
+        loadNextTasksPage();
+    }
+
+    /**
+     * Запускать поиск через SEARCH_DEBOUNCE после последнего изменения текста
+     */
+    private void setupSearchDebounce() {
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(e -> {
+            String query = searchInput.getText() == null ? "" : searchInput.getText().trim();
+            if (query.isEmpty()) {
+                handleFilterByStatus();
+            } else if (!query.equals(activeSearchQuery)) {
+                searchTasks(query);
             }
-            tasksList.clear();
-            tasksList.addAll(allTasks);
+        });
+        searchInput.textProperty().addListener((obs, oldValue, newValue) -> debounce.playFromStart());
+    }
+
+    /**
+     * Догрузить следующую страницу задач текущего фильтра или поиска
+     */
+    private void loadNextTasksPage() {
+        if (!hasMoreTasks) {
+            return;
+        }
+
+        if (activeSearchQuery != null) {
+            loadNextSearchPage();
+            return;
+        }
+
+        try {
+            TaskPage<TaskSummaryDTO> page = taskService.getTasksPage(currentStatuses, nextTasksCursor, TASKS_PAGE_SIZE);
+            nextTasksCursor = page.getNextCursor();
+            hasMoreTasks = page.hasMore();
+            page.getItems().forEach(this::classify);
+            tasksList.addAll(page.getItems());
         } catch (Exception e) {
+            hasMoreTasks = false;
             showAlert("Ошибка", "Не удалось загрузить задачи: " + e.getMessage());
         }
     }
 
+    /**
+     * Догрузить следующую страницу результатов поиска
+     */
+    private void loadNextSearchPage() {
+        try {
+            List<TaskSearchHitDTO> hits = taskService.searchTasks(activeSearchQuery, lastSearchHit, TASKS_PAGE_SIZE);
+            hasMoreTasks = hits.size() == TASKS_PAGE_SIZE;
+            if (!hits.isEmpty()) {
+                lastSearchHit = hits.get(hits.size() - 1);
+            }
+            List<TaskSummaryDTO> rows = new java.util.ArrayList<>(hits.size());
+            for (TaskSearchHitDTO hit : hits) {
+                rows.add(classify(hit.getTask()));
+            }
+            tasksList.addAll(rows);
+        } catch (Exception e) {
+            hasMoreTasks = false;
+            showAlert("Ошибка", "Не удалось выполнить поиск: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Присвоить строке категорию срока по текущему снимку времени
+     */
+    private TaskSummaryDTO classify(TaskSummaryDTO row) {
+        row.setDueCategory(dueDateClassifier.classify(row.getDueDate(), row.getStatus()));
+        return row;
+    }
+
+    /**
+     * Пересчитать категории загруженных строк по новому снимку времени
+     */
+    private void refreshDueCategories() {
+        dueDateClassifier.refresh();
+        tasksList.forEach(this::classify);
+        tasksTable.refresh();
+    }
+
+    /**
+     * Запланировать пересчёт категорий на ближайшую полночь (и дальше - каждые сутки)
+     */
+    private void scheduleMidnightRefresh() {
+        // +1 секунда, чтобы снимок гарантированно попал в новые сутки
+        PauseTransition midnight = new PauseTransition(
+                Duration.millis(dueDateClassifier.millisUntilNextMidnight() + 1000));
+        midnight.setOnFinished(e -> {
+            refreshDueCategories();
+            scheduleMidnightRefresh();
+        });
+        midnight.play();
+    }
+
+    /**
+     * Подписаться на вертикальную прокрутку таблицы, чтобы подгружать страницы по требованию
+     */
+    private void setupTasksScrollPaging() {
+        tasksTable.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(() -> {
+            for (Node node : tasksTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                    scrollBar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= scrollBar.getMax() * TASKS_PREFETCH_THRESHOLD) {
+                            loadNextTasksPage();
+                        }
+                    });
+                }
+            }
+        }));
+    }
+
     /**
      * Пометить оповещение как прочитанное
      */
     @FXML
     private void handleMarkAlertAsRead() {
-        int selectedIndex = alertsListView.getSelectionModel().getSelectedIndex();
-        if (selectedIndex >= 0) {
-            List<Alert> unread = alertService.getUnreadAlerts();
-            if (selectedIndex < unread.size()) {
-                Alert alert = unread.get(selectedIndex);
-                alertService.markAsRead(alert.getId());
-                updateAlertsCount();
-            }
+        Alert selected = alertsListView.getSelectionModel().getSelectedItem();
+        if (selected != null) {
+            // Строка уйдёт из списка по событию READ
+            alertService.markAsRead(selected.getId());
         }
     }
 
@@ -667,7 +953,8 @@ public class MainController {
      */
     @FXML
     private void handleExit() {
-        System.exit(0);
+        // TaskManagerApp.stop() закроет Spring-контекст
+        Platform.exit();
     }
 
     /**
@@ -966,35 +1253,125 @@ public class MainController {
     // ==================== ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ====================
 
     /**
-     * Загрузить все задачи из БД
+     * Загрузить все задачи из БД (постранично)
      */
     private void loadAllTasks() {
+        loadTasksByStatuses(TaskStatus.values());
+    }
+
+    // ==================== ОПОВЕЩЕНИЯ ====================
+
+    /**
+     * Привязать список оповещений и их отображение
+     */
+    private void setupAlertsList() {
+        alertsListView.setItems(alertsList);
+        alertsListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Alert alert, boolean empty) {
+                super.updateItem(alert, empty);
+                if (empty || alert == null) {
+                    setText(null);
+                    return;
+                }
+                String repeats = alert.getOccurrenceCount() > 1 ? " ×" + alert.getOccurrenceCount() : "";
+                setText(alert.getMessage() + repeats + " [" + alert.getType() + "]");
+            }
+        });
+
+        alertsListView.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(() -> {
+            for (Node node : alertsListView.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                    scrollBar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= scrollBar.getMax() * TASKS_PREFETCH_THRESHOLD) {
+                            loadNextAlertsPage();
+                        }
+                    });
+                }
+            }
+        }));
+    }
+
+    /**
+     * Загрузить счётчик и первую страницу непрочитанных оповещений (при запуске)
+     */
+    private void loadAlerts() {
         try {
-            List<Task> tasks = taskService.getAllTasks();
-            tasksList.clear();
-            tasksList.addAll(tasks);
+            unreadAlertsCount = alertService.countUnreadAlerts();
+            alertsList.clear();
+            alertsById.clear();
+            lastLoadedAlert = null;
+            hasMoreAlerts = true;
+            loadNextAlertsPage();
+            updateAlertsCountLabel();
         } catch (Exception e) {
-            showAlert("Ошибка", "Не удалось загрузить задачи: " + e.getMessage());
+            alertsCountLabel.setText("Ошибка загрузки оповещений");
         }
     }
 
     /**
-     * Обновить количество и список оповещений
+     * Догрузить следующую страницу непрочитанных оповещений
      */
-    private void updateAlertsCount() {
-        try {
-            List<Alert> unread = alertService.getUnreadAlerts();
-            alertsCountLabel.setText("Оповещения: " + unread.size());
-            ObservableList<String> alertsStrings = FXCollections.observableArrayList();
-            for (Alert alert : unread) {
-                alertsStrings.add(alert.getMessage() + " [" + alert.getType() + "]");
+    private void loadNextAlertsPage() {
+        if (!hasMoreAlerts) {
+            return;
+        }
+        List<Alert> page = alertService.getUnreadAlertsPage(lastLoadedAlert, ALERTS_PAGE_SIZE);
+        hasMoreAlerts = page.size() == ALERTS_PAGE_SIZE;
+        if (!page.isEmpty()) {
+            lastLoadedAlert = page.get(page.size() - 1);
+        }
+        // Оповещение могло прийти событием CREATED раньше, чем попало в страницу
+        for (Alert alert : page) {
+            if (alertsById.putIfAbsent(alert.getId(), alert) == null) {
+                alertsList.add(alert);
             }
-            alertsListView.setItems(alertsStrings);
-        } catch (Exception e) {
-            alertsCountLabel.setText("Ошибка загрузки оповещений");
         }
     }
 
+    /**
+     * Применить изменение оповещения (вызывается после коммита, из любого потока)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertEvent(AlertEvent event) {
+        Platform.runLater(() -> applyAlertEvent(event));
+    }
+
+    private void applyAlertEvent(AlertEvent event) {
+        if (alertsListView == null) {
+            // FXML ещё не загружен - loadAlerts() прочитает актуальное состояние
+            return;
+        }
+
+        unreadAlertsCount = Math.max(0, unreadAlertsCount + event.getUnreadDelta());
+        switch (event.getKind()) {
+            case CREATED -> {
+                // Новые сверху; оповещение могло уже попасть в список при начальной загрузке
+                Alert alert = event.getAlert();
+                if (!Boolean.TRUE.equals(alert.getIsRead()) && alertsById.putIfAbsent(alert.getId(), alert) == null) {
+                    alertsList.add(0, alert);
+                }
+            }
+            case READ, DELETED -> {
+                // Список сканируется, только если оповещение в нём точно есть
+                Alert alert = alertsById.remove(event.getAlertId());
+                if (alert != null) {
+                    alertsList.remove(alert);
+                }
+            }
+            case BULK_READ -> {
+                // Какие именно строки затронуты, неизвестно - перечитать счётчик и первую страницу
+                loadAlerts();
+                return;
+            }
+        }
+        updateAlertsCountLabel();
+    }
+
+    private void updateAlertsCountLabel() {
+        alertsCountLabel.setText("Оповещения: " + unreadAlertsCount);
+    }
+
     /**
      * Показать диалоговое окно
      */
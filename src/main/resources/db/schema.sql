@@ -30,6 +30,39 @@ CREATE INDEX IF NOT EXISTS idx_status ON tasks(status);
 CREATE INDEX IF NOT EXISTS idx_priority ON tasks(priority);
 CREATE INDEX IF NOT EXISTS idx_recurrence_parent ON tasks(recurrence_parent_id);
 CREATE INDEX IF NOT EXISTS idx_created_at ON tasks(created_at);
+CREATE INDEX IF NOT EXISTS idx_task_priority_id ON tasks(priority DESC, id);
+CREATE INDEX IF NOT EXISTS idx_task_title ON tasks(title);
+CREATE INDEX IF NOT EXISTS idx_task_title_prefix ON tasks(title varchar_pattern_ops);
+
+-- Полнотекстовый поиск (russian + english), поддерживается PostgreSQL при каждой записи
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_task_search_vector ON tasks USING gin (search_vector);
+
+-- Следующая копия повторяющейся задачи уже создана (RecurrenceRolloverJob забирает остальные)
+-- Уже завершённые задачи обработаны старым кодом - помечаем их, иначе задание создаст им копии
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS recurrence_rolled_over BOOLEAN;
+UPDATE tasks SET recurrence_rolled_over = (status = 'COMPLETED') WHERE recurrence_rolled_over IS NULL;
+ALTER TABLE tasks ALTER COLUMN recurrence_rolled_over SET DEFAULT false;
+CREATE INDEX IF NOT EXISTS idx_task_rollover_pending ON tasks (id)
+    WHERE status = 'COMPLETED' AND recurrence_type <> 'NONE' AND recurrence_rolled_over = false;
+CREATE INDEX IF NOT EXISTS idx_task_updated_at ON tasks(updated_at);
+
+-- Аренда партиций фоновой работы между узлами (PartitionLeaseManager)
+CREATE TABLE IF NOT EXISTS scheduler_node (
+    node_id VARCHAR(100) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    partition_no INTEGER PRIMARY KEY,
+    owner VARCHAR(100),
+    expires_at TIMESTAMP
+);
 
 -- Таблица тегов для задач
 CREATE TABLE IF NOT EXISTS task_tags (
@@ -51,18 +84,68 @@ CREATE TABLE IF NOT EXISTS alerts (
 CREATE INDEX IF NOT EXISTS idx_alert_task_id ON alerts(task_id);
 CREATE INDEX IF NOT EXISTS idx_alert_read ON alerts(is_read);
 
+-- Сколько одинаковых оповещений (задача + тип) склеено в строку
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS occurrence_count INTEGER DEFAULT 1;
+
 -- Таблица аудиофайлов (хранятся 30 дней)
 CREATE TABLE IF NOT EXISTS audio_files (
     id BIGSERIAL PRIMARY KEY,
     task_id BIGINT NOT NULL UNIQUE REFERENCES tasks(id) ON DELETE CASCADE,
-    audio_data BYTEA NOT NULL,
+    audio_data BYTEA,                 -- NULL, если содержимое в файловом хранилище
+    content_hash VARCHAR(64),         -- SHA-256 содержимого в файловом хранилище
     file_size BIGINT,
+    file_name VARCHAR(255) NOT NULL,
+    duration_seconds INTEGER NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     expires_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP + INTERVAL '30 days'
 );
 
+-- Без сжатия: чтение кусками (substring) не распаковывает весь файл
+ALTER TABLE audio_files ALTER COLUMN audio_data SET STORAGE EXTERNAL;
+
 CREATE INDEX IF NOT EXISTS idx_audio_expires_at ON audio_files(expires_at);
 CREATE INDEX IF NOT EXISTS idx_audio_task_id ON audio_files(task_id);
+CREATE INDEX IF NOT EXISTS idx_audio_created_at_id ON audio_files(created_at DESC, id DESC);
+
+-- Поиск по подстроке имени файла (LIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_audio_file_name_trgm ON audio_files USING gin (file_name gin_trgm_ops);
+
+-- Загрузки аудио частями (возобновляемые) и части для хранения в БД
+CREATE TABLE IF NOT EXISTS audio_uploads (
+    id VARCHAR(36) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    duration_seconds INTEGER NOT NULL,
+    storage VARCHAR(16) NOT NULL,
+    received_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_audio_uploads_updated_at ON audio_uploads(updated_at);
+
+CREATE TABLE IF NOT EXISTS audio_upload_chunks (
+    upload_id VARCHAR(36) NOT NULL REFERENCES audio_uploads(id) ON DELETE CASCADE,
+    chunk_offset BIGINT NOT NULL,
+    data BYTEA NOT NULL,
+    PRIMARY KEY (upload_id, chunk_offset)
+);
+
+-- Счётчики ссылок на содержимое в файловом хранилище (одинаковые записи хранятся один раз)
+CREATE TABLE IF NOT EXISTS audio_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL
+);
+
+-- ============================================================================
+-- Миграция: бэкфилл title из первой строки description
+-- (в приложении выполняется батчами в SchemaMigration)
+-- ============================================================================
+
+UPDATE tasks
+SET title = COALESCE(NULLIF(LEFT(BTRIM(split_part(description, chr(10), 1), ' ' || chr(9) || chr(13)), 255), ''), 'Без названия')
+WHERE title IS NULL OR title = '';
 
 -- ============================================================================
 -- Функции и триггеры для автоматического обновления updated_at
@@ -85,6 +168,8 @@ EXECUTE FUNCTION update_task_updated_at();
 
 -- ============================================================================
 -- Функция для автоматического удаления истекших аудиофайлов
+-- Приложение использует AudioPurgeJob (учитывает файловое хранилище); функция -
+-- для ручного запуска при taskmanager.audio.storage=database
 -- ============================================================================
 
 CREATE OR REPLACE FUNCTION delete_expired_audio_files()
@@ -0,0 +1,212 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.dao.TaskRepository;
+import com.taskmanager.model.AlertType;
+import com.taskmanager.model.RecurrenceType;
+import com.taskmanager.model.Task;
+import com.taskmanager.service.AlertService;
+import com.taskmanager.service.DeadlineReminderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Три узла (PartitionLeaseManager + DeadlineReminderService) против одной базы:
+ * партиции делятся без пересечений, а после остановки heartbeat одного узла его партиции
+ * через lease-ttl-seconds забирают остальные, и каждое напоминание срабатывает ровно один раз.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+// Без общей тестовой транзакции: узлы видят только закоммиченные строки
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PartitionLeaseMultiNodeTest {
+
+    private static final int PARTITIONS = 12;
+    private static final int LEASE_TTL_SECONDS = 2;
+    private static final int TASKS = 36;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // id задачи -> сколько раз по ней создано напоминание (на всех узлах)
+    private final Map<Long, AtomicInteger> reminders = new ConcurrentHashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void createSchedulerTables() {
+        // Как в SchemaMigration
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_node (" +
+                "node_id VARCHAR(100) PRIMARY KEY, heartbeat_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_lease (" +
+                "partition_no INTEGER PRIMARY KEY, owner VARCHAR(100), expires_at TIMESTAMP)");
+        jdbcTemplate.update("DELETE FROM scheduler_node");
+        jdbcTemplate.update("DELETE FROM scheduler_lease");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        for (Node node : nodes) {
+            node.reminderService.stop();
+            node.leaseManager.shutdown();
+        }
+    }
+
+    @Test
+    void partitionsAreSplitAndTakenOverAfterNodeFailure() throws Exception {
+        // Срок через минуту с небольшим, напоминание за минуту - срабатывание через 8-10 с
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusMinutes(1).plusSeconds(8);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new Task("Задача " + i, 5, base.plusSeconds(i % 3), RecurrenceType.NONE));
+        }
+        Set<Long> taskIds = new HashSet<>();
+        taskRepository.saveAll(tasks).forEach(task -> taskIds.add(task.getId()));
+
+        Node a = startNode("node-a");
+        Node b = startNode("node-b");
+        Node c = startNode("node-c");
+
+        awaitTrue(() -> {
+            heartbeat(a, b, c);
+            return nodes.stream().allMatch(node -> node.owned().size() == PARTITIONS / 3);
+        }, "партиции поделены поровну");
+        assertDisjointAndComplete(List.of(a, b, c));
+
+        for (Node node : nodes) {
+            node.reminderService.start();
+        }
+
+        // Узел c «упал»: heartbeat больше не идёт, аренды не освобождаются
+        Set<Integer> orphaned = c.owned();
+        c.reminderService.stop();
+
+        awaitTrue(() -> {
+            heartbeat(a, b);
+            return a.owned().size() + b.owned().size() == PARTITIONS;
+        }, "партиции упавшего узла перешли к живым");
+        assertDisjointAndComplete(List.of(a, b));
+        Set<Integer> takenOver = new HashSet<>(a.owned());
+        takenOver.addAll(b.owned());
+        assertTrue(takenOver.containsAll(orphaned));
+
+        awaitTrue(() -> {
+            heartbeat(a, b);
+            return reminders.keySet().containsAll(taskIds);
+        }, "сработали все напоминания");
+        // Даём время на возможные повторы
+        Thread.sleep(2000);
+
+        assertEquals(taskIds, reminders.keySet());
+        assertTrue(reminders.values().stream().allMatch(count -> count.get() == 1),
+                "каждое напоминание ровно один раз: " + reminders);
+    }
+
+    private Node startNode(String nodeId) {
+        PartitionLeaseManager leaseManager = new PartitionLeaseManager();
+        DeadlineReminderService reminderService = new DeadlineReminderService();
+
+        ReflectionTestUtils.setField(leaseManager, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(leaseManager, "eventPublisher", (ApplicationEventPublisher) event -> {
+            if (event instanceof PartitionsChangedEvent changed) {
+                reminderService.onPartitionsChanged(changed);
+            }
+        });
+        ReflectionTestUtils.setField(leaseManager, "partitionCount", PARTITIONS);
+        ReflectionTestUtils.setField(leaseManager, "leaseTtlSeconds", LEASE_TTL_SECONDS);
+        ReflectionTestUtils.setField(leaseManager, "configuredNodeId", nodeId);
+
+        ReflectionTestUtils.setField(reminderService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(reminderService, "alertService", new RecordingAlertService());
+        ReflectionTestUtils.setField(reminderService, "partitionLeaseManager", leaseManager);
+        ReflectionTestUtils.setField(reminderService, "enabled", true);
+        ReflectionTestUtils.setField(reminderService, "leadMinutesConfig", "1");
+        ReflectionTestUtils.setField(reminderService, "horizonHours", 1L);
+        ReflectionTestUtils.setField(reminderService, "tickMs", 100L);
+        ReflectionTestUtils.setField(reminderService, "wheelSize", 64);
+        ReflectionTestUtils.setField(reminderService, "syncOverlapSeconds", 30L);
+
+        leaseManager.start();
+        Node node = new Node(leaseManager, reminderService);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void heartbeat(Node... alive) {
+        for (Node node : alive) {
+            node.leaseManager.heartbeat();
+        }
+    }
+
+    private static void assertDisjointAndComplete(List<Node> alive) {
+        Set<Integer> union = new HashSet<>();
+        int total = 0;
+        for (Node node : alive) {
+            union.addAll(node.owned());
+            total += node.owned().size();
+        }
+        assertEquals(PARTITIONS, total, "партиции не пересекаются");
+        assertEquals(IntStream.range(0, PARTITIONS).boxed().collect(Collectors.toSet()), union);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Не дождались: " + description);
+            }
+            Thread.sleep(300);
+        }
+    }
+
+    private record Node(PartitionLeaseManager leaseManager, DeadlineReminderService reminderService) {
+        Set<Integer> owned() {
+            return leaseManager.getOwnedPartitions();
+        }
+    }
+
+    /**
+     * Вместо записи оповещения считает срабатывания по задачам
+     */
+    private class RecordingAlertService extends AlertService {
+        @Override
+        public void createAlert(Long taskId, LocalDateTime alertTime, AlertType type, String message) {
+            reminders.computeIfAbsent(taskId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
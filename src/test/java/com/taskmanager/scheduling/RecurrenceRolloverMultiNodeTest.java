@@ -0,0 +1,120 @@
+package com.taskmanager.scheduling;
+
+import com.taskmanager.dao.TaskRepository;
+import com.taskmanager.model.RecurrenceType;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.service.DeadlineReminderService;
+import com.taskmanager.service.RecurrenceExpansionService;
+import com.taskmanager.service.TaskService;
+import com.taskmanager.service.TaskStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Два экземпляра RecurrenceRolloverJob (как два узла) работают одновременно против
+ * одной базы: каждая завершённая повторяющаяся задача должна получить ровно одну копию.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Import({TaskService.class, TaskStatisticsService.class, RecurrenceExpansionService.class})
+// Без общей тестовой транзакции: каждый узел работает в своих транзакциях, как в приложении
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecurrenceRolloverMultiNodeTest {
+
+    private static final int SERIES = 300;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private DeadlineReminderService deadlineReminderService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void eachCompletedRecurrenceIsRolledOverExactlyOnce() throws Exception {
+        List<Task> completed = new ArrayList<>(SERIES);
+        for (int i = 0; i < SERIES; i++) {
+            Task task = new Task("Серия " + i, 5, LocalDateTime.now().plusDays(1), RecurrenceType.DAILY);
+            task.setStatus(TaskStatus.COMPLETED);
+            task.setRecurrenceRolledOver(false);
+            completed.add(task);
+        }
+        taskRepository.saveAll(completed);
+
+        RecurrenceRolloverJob nodeA = newNode();
+        RecurrenceRolloverJob nodeB = newNode();
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> runA = nodes.submit(() -> {
+                start.await();
+                nodeA.run();
+                return null;
+            });
+            Future<?> runB = nodes.submit(() -> {
+                start.await();
+                nodeB.run();
+                return null;
+            });
+            start.countDown();
+            runA.get(2, TimeUnit.MINUTES);
+            runB.get(2, TimeUnit.MINUTES);
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        List<Task> all = taskRepository.findAll();
+        List<Task> originals = all.stream().filter(t -> t.getStatus() == TaskStatus.COMPLETED).toList();
+        Map<String, Long> copiesPerSeries = all.stream()
+                .filter(t -> t.getStatus() == TaskStatus.NEW)
+                .collect(Collectors.groupingBy(Task::getDescription, Collectors.counting()));
+
+        assertEquals(SERIES, originals.size());
+        assertTrue(originals.stream().allMatch(Task::isRecurrenceRolledOver), "все исходные задачи помечены");
+        assertEquals(SERIES, copiesPerSeries.size(), "у каждой серии есть следующая копия");
+        assertEquals(Map.of(), copiesPerSeries.entrySet().stream()
+                .filter(e -> e.getValue() != 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)), "дубликатов копий нет");
+    }
+
+    private RecurrenceRolloverJob newNode() {
+        RecurrenceRolloverJob job = new RecurrenceRolloverJob();
+        ReflectionTestUtils.setField(job, "taskService", taskService);
+        // Маленькие пачки, чтобы узлы много раз конкурировали за строки
+        ReflectionTestUtils.setField(job, "batchSize", 7);
+        return job;
+    }
+}
@@ -0,0 +1,81 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dao.AudioFileRepository;
+import com.taskmanager.model.AudioFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Чтение audio_data кусками: запросы substring/octet_length выполняются на настоящем PostgreSQL
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class AudioChunkChannelTest {
+
+    private static final int AUDIO_BYTES = 10_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AudioFileRepository audioFileRepository;
+
+    private byte[] audio;
+    private Long audioFileId;
+
+    @BeforeEach
+    void saveAudio() {
+        audio = new byte[AUDIO_BYTES];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) (i * 31);
+        }
+        AudioFile audioFile = new AudioFile();
+        audioFile.setAudioData(audio);
+        audioFile.setFileName("voice.wav");
+        audioFile.setDurationSeconds(1);
+        audioFile.setCreatedAt(LocalDateTime.now());
+        audioFileId = audioFileRepository.saveAndFlush(audioFile).getId();
+    }
+
+    @Test
+    void readsChunkAtOneBasedOffset() {
+        assertEquals(AUDIO_BYTES, audioFileRepository.findAudioLength(audioFileId));
+        assertArrayEquals(Arrays.copyOfRange(audio, 0, 100), audioFileRepository.readAudioChunk(audioFileId, 1, 100));
+        assertArrayEquals(Arrays.copyOfRange(audio, 4096, 5096), audioFileRepository.readAudioChunk(audioFileId, 4097, 1000));
+        // Кусок за концом данных обрезается
+        assertArrayEquals(Arrays.copyOfRange(audio, 9990, AUDIO_BYTES), audioFileRepository.readAudioChunk(audioFileId, 9991, 1000));
+    }
+
+    @Test
+    void channelReadsWholeRecordingInChunks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Размер куска не делит запись нацело, буфер читателя меньше куска
+        try (AudioChunkChannel channel = new AudioChunkChannel(audioFileRepository, audioFileId, AUDIO_BYTES, 3000)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                out.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        }
+        assertArrayEquals(audio, out.toByteArray());
+    }
+}
@@ -0,0 +1,109 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.DueDateCategory;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DueDateClassifierTest {
+
+    // Среда, 15:30
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 13, 15, 30);
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final DueDateClassifier classifier = new DueDateClassifier(clock);
+
+    @Test
+    void pastDueDateIsOverdue() {
+        assertEquals(DueDateCategory.OVERDUE, classify(NOW.minusMinutes(1)));
+        assertEquals(DueDateCategory.OVERDUE, classify(NOW.minusDays(10)));
+    }
+
+    @Test
+    void restOfTodayAndWholeTomorrowAreTodayOrTomorrow() {
+        assertEquals(DueDateCategory.TODAY_OR_TOMORROW, classify(NOW));
+        assertEquals(DueDateCategory.TODAY_OR_TOMORROW, classify(NOW.withHour(23).withMinute(59)));
+        assertEquals(DueDateCategory.TODAY_OR_TOMORROW, classify(NOW.plusDays(1).withHour(0).withMinute(0)));
+        assertEquals(DueDateCategory.TODAY_OR_TOMORROW, classify(NOW.plusDays(1).withHour(23).withMinute(59)));
+    }
+
+    @Test
+    void nextSevenDaysAreThisWeek() {
+        assertEquals(DueDateCategory.THIS_WEEK, classify(NOW.plusDays(2).withHour(0).withMinute(0)));
+        assertEquals(DueDateCategory.THIS_WEEK, classify(NOW.plusDays(7)));
+        assertEquals(DueDateCategory.NONE, classify(NOW.plusDays(7).plusMinutes(1)));
+    }
+
+    @Test
+    void completedTasksAndMissingDueDatesHaveNoCategory() {
+        assertEquals(DueDateCategory.NONE, classifier.classify(NOW.minusDays(1), TaskStatus.COMPLETED));
+        assertEquals(DueDateCategory.NONE, classifier.classify(null, TaskStatus.NEW));
+    }
+
+    @Test
+    void categoriesFollowSnapshotUntilRefresh() {
+        LocalDateTime tomorrowMorning = NOW.plusDays(1).withHour(9).withMinute(0);
+        clock.set(NOW.plusDays(1).withHour(10).withMinute(0));
+
+        // Снимок старый - задача ещё не просрочена
+        assertEquals(DueDateCategory.TODAY_OR_TOMORROW, classify(tomorrowMorning));
+
+        classifier.refresh();
+        assertEquals(DueDateCategory.OVERDUE, classify(tomorrowMorning));
+    }
+
+    @Test
+    void millisUntilNextMidnightCountsFromCurrentTime() {
+        assertEquals(Duration.ofMinutes(8 * 60 + 30).toMillis(), classifier.millisUntilNextMidnight());
+
+        clock.set(NOW.withHour(23).withMinute(59));
+        assertEquals(Duration.ofMinutes(1).toMillis(), classifier.millisUntilNextMidnight());
+
+        // Полночь прошла, а снимок не обновлён - пора обновлять немедленно
+        clock.set(NOW.plusDays(1).withHour(0).withMinute(5));
+        assertEquals(0, classifier.millisUntilNextMidnight());
+    }
+
+    private DueDateCategory classify(LocalDateTime dueDate) {
+        return classifier.classify(dueDate, TaskStatus.NEW);
+    }
+
+    /**
+     * Часы, которые тест переводит вручную
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
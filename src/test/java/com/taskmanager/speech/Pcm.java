@@ -0,0 +1,60 @@
+package com.taskmanager.speech;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Синтетический PCM 16 бит моно 16 кГц для тестов детектора речи
+ *
+ * Тишина - нули, «речь» - синус 220 Гц с амплитудой 3000 (RMS ~2100, выше порога 500).
+ */
+final class Pcm {
+
+    static final int SAMPLE_RATE = 16_000;
+    static final int BYTES_PER_MS = SAMPLE_RATE * 2 / 1000;
+
+    private final ByteBuffer buffer;
+    private int sample;
+
+    private Pcm(int totalMs) {
+        buffer = ByteBuffer.allocate(totalMs * BYTES_PER_MS).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static Pcm ofMillis(int totalMs) {
+        return new Pcm(totalMs);
+    }
+
+    Pcm silence(int ms) {
+        return fill(ms, 0);
+    }
+
+    Pcm speech(int ms) {
+        for (int i = 0; i < ms * SAMPLE_RATE / 1000; i++, sample++) {
+            buffer.putShort((short) (3000 * Math.sin(2 * Math.PI * 220 * sample / SAMPLE_RATE)));
+        }
+        return this;
+    }
+
+    // Меандр: RMS равен амплитуде, каждый отсчёт - переход через ноль
+    Pcm hiss(int ms, int amplitude) {
+        for (int i = 0; i < ms * SAMPLE_RATE / 1000; i++, sample++) {
+            buffer.putShort((short) (sample % 2 == 0 ? amplitude : -amplitude));
+        }
+        return this;
+    }
+
+    ByteBuffer build() {
+        return buffer.flip();
+    }
+
+    private Pcm fill(int ms, int value) {
+        for (int i = 0; i < ms * SAMPLE_RATE / 1000; i++, sample++) {
+            buffer.putShort((short) value);
+        }
+        return this;
+    }
+
+    static int bytes(int ms) {
+        return ms * BYTES_PER_MS;
+    }
+}
@@ -0,0 +1,150 @@
+package com.taskmanager.speech;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import static com.taskmanager.speech.Pcm.SAMPLE_RATE;
+import static com.taskmanager.speech.Pcm.bytes;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кадр 20 мс, pre-roll - 200 мс (10 кадров), хвост после речи - 700 мс (35 кадров)
+ */
+class VadRecognitionStreamTest {
+
+    private final VoiceActivityDetector detector = new VoiceActivityDetector(20, 500, 0.3, 700, 200, 200);
+    private final VadStats stats = new VadStats();
+    private final RecordingStream downstream = new RecordingStream();
+    private final VadRecognitionStream stream = new VadRecognitionStream(downstream, detector, stats, SAMPLE_RATE);
+
+    @Test
+    void forwardsPreRollSpeechAndTailOnly() throws Exception {
+        byte[] audio = toArray(Pcm.ofMillis(4700)
+                .silence(1000).speech(1000).silence(2000).speech(500).silence(200).build());
+
+        send(audio, 640);
+        stream.finish();
+
+        // 200 мс до речи + речь + 700 мс хвоста; перед второй фразой снова 200 мс,
+        // хвост в 200 мс в конце записи передаётся целиком
+        byte[] expected = concat(
+                Arrays.copyOfRange(audio, bytes(800), bytes(2700)),
+                Arrays.copyOfRange(audio, bytes(3800), bytes(4700)));
+        assertArrayEquals(expected, downstream.received());
+        assertTrue(downstream.finished);
+        assertEquals(audio.length, stats.getTotalBytes());
+        assertEquals(expected.length, stats.getKeptBytes());
+    }
+
+    @Test
+    void preRollIsShorterWhenSpeechStartsEarly() throws Exception {
+        byte[] audio = toArray(Pcm.ofMillis(1100).silence(100).speech(1000).build());
+
+        send(audio, 640);
+        stream.finish();
+
+        assertArrayEquals(audio, downstream.received());
+    }
+
+    @Test
+    void resultDoesNotDependOnChunkSize() throws Exception {
+        byte[] audio = toArray(Pcm.ofMillis(4700)
+                .silence(1000).speech(1000).silence(2000).speech(500).silence(200).build());
+        send(audio, 640);
+        stream.finish();
+
+        RecordingStream unevenDownstream = new RecordingStream();
+        VadRecognitionStream uneven = new VadRecognitionStream(unevenDownstream, detector, new VadStats(), SAMPLE_RATE);
+        for (int offset = 0; offset < audio.length; offset += 999) {
+            uneven.sendAudio(ByteBuffer.wrap(audio, offset, Math.min(999, audio.length - offset)));
+        }
+        uneven.finish();
+
+        assertArrayEquals(downstream.received(), unevenDownstream.received());
+    }
+
+    @Test
+    void incompleteLastFrameIsProcessedOnFinish() throws Exception {
+        // 1010 мс: последний кадр - 10 мс речи
+        byte[] audio = toArray(Pcm.ofMillis(1010).silence(500).speech(510).build());
+
+        send(audio, 640);
+        stream.finish();
+
+        assertArrayEquals(Arrays.copyOfRange(audio, bytes(300), bytes(1010)), downstream.received());
+        assertEquals(audio.length, stats.getTotalBytes());
+    }
+
+    @Test
+    void silenceIsNotForwardedButSessionIsFinished() throws Exception {
+        byte[] audio = toArray(Pcm.ofMillis(2000).silence(2000).build());
+
+        send(audio, 640);
+        stream.finish();
+
+        assertEquals(0, downstream.received().length);
+        assertTrue(downstream.finished);
+        assertEquals(1.0, stats.getTrimmedRatio());
+    }
+
+    private void send(byte[] audio, int chunkBytes) throws Exception {
+        for (int offset = 0; offset < audio.length; offset += chunkBytes) {
+            stream.sendAudio(ByteBuffer.wrap(audio, offset, Math.min(chunkBytes, audio.length - offset)));
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Копирует переданный звук: VadRecognitionStream переиспользует свои буферы
+     */
+    private static class RecordingStream implements RecognitionStream {
+
+        private final ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private boolean finished;
+
+        @Override
+        public void sendAudio(ByteBuffer pcm) {
+            byte[] bytes = new byte[pcm.remaining()];
+            pcm.get(bytes);
+            audio.writeBytes(bytes);
+        }
+
+        @Override
+        public void finish() {
+            finished = true;
+            result.complete("");
+        }
+
+        @Override
+        public void cancel() {
+            result.cancel(false);
+        }
+
+        @Override
+        public CompletableFuture<String> result() {
+            return result;
+        }
+
+        byte[] received() {
+            return audio.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskmanager.speech;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.taskmanager.speech.Pcm.SAMPLE_RATE;
+import static com.taskmanager.speech.Pcm.bytes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoiceActivityDetectorTest {
+
+    // Значения по умолчанию из speech.vad.*
+    private final VoiceActivityDetector detector = new VoiceActivityDetector(20, 500, 0.3, 700, 200, 200);
+
+    @Test
+    void trimsLeadingAndTrailingSilenceKeepingPadding() {
+        ByteBuffer pcm = Pcm.ofMillis(3000).silence(1000).speech(1000).silence(1000).build();
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 800, 2200);
+    }
+
+    @Test
+    void splitsRecordingOnLongPause() {
+        ByteBuffer pcm = Pcm.ofMillis(5000)
+                .silence(1000).speech(1000).silence(1000).speech(1000).silence(1000).build();
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(2, segments.size());
+        assertSegment(segments.get(0), 800, 2200);
+        assertSegment(segments.get(1), 2800, 4200);
+    }
+
+    @Test
+    void keepsShortPauseInsideSegment() {
+        ByteBuffer pcm = Pcm.ofMillis(4400)
+                .silence(1000).speech(1000).silence(400).speech(1000).silence(1000).build();
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 800, 3600);
+    }
+
+    @Test
+    void mergesSegmentsWhosePaddingOverlaps() {
+        VoiceActivityDetector widePadding = new VoiceActivityDetector(20, 500, 0.3, 700, 200, 400);
+        ByteBuffer pcm = Pcm.ofMillis(4720)
+                .silence(1000).speech(1000).silence(720).speech(1000).silence(1000).build();
+
+        List<SpeechSegment> segments = widePadding.detect(pcm, SAMPLE_RATE);
+
+        // Пауза 720 мс длиннее min-pause, но отступы по 400 мс перекрываются
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 600, 4120);
+    }
+
+    @Test
+    void paddingIsClippedToRecordingBounds() {
+        ByteBuffer pcm = Pcm.ofMillis(1100).silence(100).speech(1000).build();
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 0, 1100);
+    }
+
+    @Test
+    void dropsBurstsShorterThanMinimumSpeech() {
+        ByteBuffer pcm = Pcm.ofMillis(4000)
+                .silence(1000).speech(100).silence(1000).speech(1000).silence(900).build();
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 1900, 3300);
+    }
+
+    @Test
+    void silenceGivesNoSegments() {
+        ByteBuffer pcm = Pcm.ofMillis(2000).silence(2000).build();
+
+        assertTrue(detector.detect(pcm, SAMPLE_RATE).isEmpty());
+    }
+
+    @Test
+    void offsetsAreRelativeToBufferPosition() {
+        ByteBuffer pcm = Pcm.ofMillis(3100).speech(100).silence(1000).speech(1000).silence(1000).build();
+        // Первые 100 мс - «заголовок», детектор его не видит
+        pcm.position(bytes(100));
+
+        List<SpeechSegment> segments = detector.detect(pcm, SAMPLE_RATE);
+
+        assertEquals(bytes(100), pcm.position());
+        assertEquals(1, segments.size());
+        assertSegment(segments.get(0), 800, 2200);
+    }
+
+    @Test
+    void quietNoisyFramesCountAsSpeech() {
+        ByteBuffer fricative = Pcm.ofMillis(20).hiss(20, 400).build();
+        ByteBuffer hum = Pcm.ofMillis(20).hiss(20, 100).build();
+
+        // RMS 400 ниже порога 500, но выше половины, и каждый отсчёт меняет знак
+        assertTrue(detector.isSpeech(fricative, 0, fricative.remaining()));
+        assertFalse(detector.isSpeech(hum, 0, hum.remaining()));
+    }
+
+    private static void assertSegment(SpeechSegment segment, int startMs, int endMs) {
+        assertEquals(bytes(startMs), segment.getStart(), "начало " + segment);
+        assertEquals(bytes(endMs), segment.getEnd(), "конец " + segment);
+    }
+}